@@ -8,6 +8,7 @@ import org.apache.logging.log4j.Logger;
 import net.minecraft.world.DimensionType;
 import net.minecraft.world.chunk.storage.AnvilSaveConverter;
 import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLFingerprintViolationEvent;
@@ -27,11 +28,15 @@ import fi.dy.masa.justenoughdimensions.config.DimensionTypeEntry;
 import fi.dy.masa.justenoughdimensions.event.DataTracker;
 import fi.dy.masa.justenoughdimensions.network.DimensionSyncChannelHandler;
 import fi.dy.masa.justenoughdimensions.network.PacketHandler;
+import fi.dy.masa.justenoughdimensions.network.WorldPropertiesSyncCache;
 import fi.dy.masa.justenoughdimensions.proxy.CommonProxy;
 import fi.dy.masa.justenoughdimensions.reference.Reference;
+import fi.dy.masa.justenoughdimensions.util.ConfigFileWatcher;
+import fi.dy.masa.justenoughdimensions.util.JEDFileIO;
 import fi.dy.masa.justenoughdimensions.util.PlayerInventoryStorage;
 import fi.dy.masa.justenoughdimensions.util.world.WorldBorderUtils;
 import fi.dy.masa.justenoughdimensions.util.world.WorldFileUtils;
+import fi.dy.masa.justenoughdimensions.util.world.WorldInfoPrefetcher;
 import fi.dy.masa.justenoughdimensions.util.world.WorldUtils;
 import fi.dy.masa.justenoughdimensions.world.WorldProviderEndJED;
 import fi.dy.masa.justenoughdimensions.world.WorldProviderHellJED;
@@ -84,6 +89,10 @@ public class JustEnoughDimensions
         // otherwise they would be considered 'static dimensions' and get loaded on server start.
         DimensionConfig.instance().doEarlyDimensionRegistrations();
 
+        // Start reading the jed_level.dat files of the dimensions that will load on server start
+        // in the background, while the server is still busy with other things, like loading the overworld.
+        WorldInfoPrefetcher.prefetchStaticDimensions(event.getServer(), worldDir);
+
         // Handle template world copying for the overworld before the server starts
         WorldFileUtils.copyTemplateWorldIfApplicable(0, worldDir);
     }
@@ -119,13 +128,23 @@ public class JustEnoughDimensions
         // Register our custom (non-override) dimensions. This is in this event so that our custom dimensions
         // won't get auto-loaded on server start as 'static' dimensions.
         DimensionConfig.instance().registerNonOverrideDimensions();
+
+        ConfigFileWatcher.start(FMLCommonHandler.instance().getMinecraftServerInstance(), lastWorldDir);
     }
 
     @Mod.EventHandler
     public void serverStopped(FMLServerStoppedEvent event)
     {
+        ConfigFileWatcher.stop();
+
+        // Wait for all the queued JED file writes to finish, player data first
+        JEDFileIO.INSTANCE.flush();
+
         WorldUtils.removeTemporaryWorldIfApplicable(0, null, lastWorldDir, true);
         lastWorldDir = null;
+        WorldFileUtils.clearFileStates();
+        WorldInfoPrefetcher.clear();
+        WorldPropertiesSyncCache.clearSentPayloads();
 
         // Unregister custom dimensions. This is only useful in single player,
         // so that all the dimensions won't immediately load when joining a world again.
@@ -0,0 +1,409 @@
+package fi.dy.masa.justenoughdimensions.client.render;
+
+import java.util.Random;
+import org.lwjgl.opengl.GL11;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GLAllocation;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.client.renderer.vertex.VertexFormatElement;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+
+/**
+ * The static sky dome, star field and End skybox geometry used by the SkyRenderer.
+ * The geometry is always the same, so it's only built once and then shared
+ * by all the SkyRenderer instances. The GL buffers get deleted when the last user releases it.
+ */
+public class SkyGeometry
+{
+    private static SkyGeometry instance;
+
+    private final boolean vboEnabled;
+    private final VertexFormat vertexBufferFormat;
+    private int refCount;
+    private int starGLCallList = -1;
+    private int glSkyList = -1;
+    private int glSkyList2 = -1;
+    private int glEndSkyList = -1;
+    private net.minecraft.client.renderer.vertex.VertexBuffer starVBO;
+    private net.minecraft.client.renderer.vertex.VertexBuffer skyVBO;
+    private net.minecraft.client.renderer.vertex.VertexBuffer sky2VBO;
+    private net.minecraft.client.renderer.vertex.VertexBuffer endSkyVBO;
+
+    private SkyGeometry(boolean vboEnabled)
+    {
+        this.vboEnabled = vboEnabled;
+        this.vertexBufferFormat = new VertexFormat();
+        this.vertexBufferFormat.addElement(new VertexFormatElement(0, VertexFormatElement.EnumType.FLOAT, VertexFormatElement.EnumUsage.POSITION, 3));
+        this.generateStars();
+        this.generateSky();
+        this.generateSky2();
+        this.generateEndSky();
+    }
+
+    /**
+     * Returns the shared geometry, building it first if needed.
+     * Each call must be matched by a call to release().
+     */
+    public static SkyGeometry acquire()
+    {
+        boolean vboEnabled = OpenGlHelper.useVbo();
+
+        // The VBO setting has been changed, the new users get a new instance,
+        // and the old one gets deleted once its old users have released it
+        if (instance == null || instance.vboEnabled != vboEnabled)
+        {
+            JustEnoughDimensions.logInfo("SkyGeometry: Building the sky geometry (VBOs: {})", vboEnabled);
+            instance = new SkyGeometry(vboEnabled);
+        }
+
+        instance.refCount++;
+
+        return instance;
+    }
+
+    public void release()
+    {
+        if (--this.refCount <= 0)
+        {
+            JustEnoughDimensions.logInfo("SkyGeometry: Deleting the sky geometry");
+            this.deleteGlResources();
+
+            if (instance == this)
+            {
+                instance = null;
+            }
+        }
+    }
+
+    public boolean isVboEnabled()
+    {
+        return this.vboEnabled;
+    }
+
+    public void drawSky()
+    {
+        this.draw(this.skyVBO, this.glSkyList);
+    }
+
+    public void drawSky2()
+    {
+        this.draw(this.sky2VBO, this.glSkyList2);
+    }
+
+    public void drawStars()
+    {
+        this.draw(this.starVBO, this.starGLCallList);
+    }
+
+    /**
+     * Draws the whole End skybox cube with one draw call.
+     * The texture needs to be bound by the caller.
+     */
+    public void drawEndSky()
+    {
+        if (this.vboEnabled)
+        {
+            // Position (3 floats), texture (2 floats) and color (4 bytes) = 24 bytes per vertex
+            this.endSkyVBO.bindBuffer();
+            GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+            GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, 24, 0);
+            OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+            GlStateManager.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            GlStateManager.glTexCoordPointer(2, GL11.GL_FLOAT, 24, 12);
+            GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+            GlStateManager.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, 24, 20);
+            this.endSkyVBO.drawArrays(GL11.GL_QUADS);
+            this.endSkyVBO.unbindBuffer();
+            GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+            GlStateManager.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+            GlStateManager.resetColor();
+        }
+        else
+        {
+            GlStateManager.callList(this.glEndSkyList);
+        }
+    }
+
+    /**
+     * Calls the sky2 display list, regardless of the VBO setting.
+     * This matches the vanilla sky rendering, which always does this for the bottom part of the void sky.
+     */
+    public void callSky2List()
+    {
+        GlStateManager.callList(this.glSkyList2);
+    }
+
+    private void draw(net.minecraft.client.renderer.vertex.VertexBuffer vbo, int displayList)
+    {
+        if (this.vboEnabled)
+        {
+            vbo.bindBuffer();
+            GlStateManager.glEnableClientState(32884);
+            GlStateManager.glVertexPointer(3, 5126, 12, 0);
+            vbo.drawArrays(7);
+            vbo.unbindBuffer();
+            GlStateManager.glDisableClientState(32884);
+        }
+        else
+        {
+            GlStateManager.callList(displayList);
+        }
+    }
+
+    private void deleteGlResources()
+    {
+        if (this.starVBO != null) { this.starVBO.deleteGlBuffers(); this.starVBO = null; }
+        if (this.skyVBO  != null) { this.skyVBO.deleteGlBuffers();  this.skyVBO = null; }
+        if (this.sky2VBO != null) { this.sky2VBO.deleteGlBuffers(); this.sky2VBO = null; }
+        if (this.endSkyVBO != null) { this.endSkyVBO.deleteGlBuffers(); this.endSkyVBO = null; }
+
+        if (this.starGLCallList >= 0) { GLAllocation.deleteDisplayLists(this.starGLCallList); this.starGLCallList = -1; }
+        if (this.glSkyList >= 0)      { GLAllocation.deleteDisplayLists(this.glSkyList);      this.glSkyList = -1; }
+        if (this.glSkyList2 >= 0)     { GLAllocation.deleteDisplayLists(this.glSkyList2);     this.glSkyList2 = -1; }
+        if (this.glEndSkyList >= 0)   { GLAllocation.deleteDisplayLists(this.glEndSkyList);   this.glEndSkyList = -1; }
+    }
+
+    private void generateSky2()
+    {
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder bufferBuilder = tessellator.getBuffer();
+
+        if (this.sky2VBO != null)
+        {
+            this.sky2VBO.deleteGlBuffers();
+        }
+
+        if (this.glSkyList2 >= 0)
+        {
+            GLAllocation.deleteDisplayLists(this.glSkyList2);
+            this.glSkyList2 = -1;
+        }
+
+        if (this.vboEnabled)
+        {
+            this.sky2VBO = new net.minecraft.client.renderer.vertex.VertexBuffer(this.vertexBufferFormat);
+            this.renderSky(bufferBuilder, -16.0F, true);
+            bufferBuilder.finishDrawing();
+            bufferBuilder.reset();
+            this.sky2VBO.bufferData(bufferBuilder.getByteBuffer());
+        }
+        else
+        {
+            this.glSkyList2 = GLAllocation.generateDisplayLists(1);
+            GlStateManager.glNewList(this.glSkyList2, 4864);
+            this.renderSky(bufferBuilder, -16.0F, true);
+            tessellator.draw();
+            GlStateManager.glEndList();
+        }
+    }
+
+    private void generateSky()
+    {
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder bufferBuilder = tessellator.getBuffer();
+
+        if (this.skyVBO != null)
+        {
+            this.skyVBO.deleteGlBuffers();
+        }
+
+        if (this.glSkyList >= 0)
+        {
+            GLAllocation.deleteDisplayLists(this.glSkyList);
+            this.glSkyList = -1;
+        }
+
+        if (this.vboEnabled)
+        {
+            this.skyVBO = new net.minecraft.client.renderer.vertex.VertexBuffer(this.vertexBufferFormat);
+            this.renderSky(bufferBuilder, 16.0F, false);
+            bufferBuilder.finishDrawing();
+            bufferBuilder.reset();
+            this.skyVBO.bufferData(bufferBuilder.getByteBuffer());
+        }
+        else
+        {
+            this.glSkyList = GLAllocation.generateDisplayLists(1);
+            GlStateManager.glNewList(this.glSkyList, 4864);
+            this.renderSky(bufferBuilder, 16.0F, false);
+            tessellator.draw();
+            GlStateManager.glEndList();
+        }
+    }
+
+    private void renderSky(BufferBuilder bufferBuilder, float posY, boolean reverseX)
+    {
+        bufferBuilder.begin(7, DefaultVertexFormats.POSITION);
+
+        for (int k = -384; k <= 384; k += 64)
+        {
+            for (int l = -384; l <= 384; l += 64)
+            {
+                float f = (float)k;
+                float f1 = (float)(k + 64);
+
+                if (reverseX)
+                {
+                    f1 = (float)k;
+                    f = (float)(k + 64);
+                }
+
+                bufferBuilder.pos((double)f, (double)posY, (double)l).endVertex();
+                bufferBuilder.pos((double)f1, (double)posY, (double)l).endVertex();
+                bufferBuilder.pos((double)f1, (double)posY, (double)(l + 64)).endVertex();
+                bufferBuilder.pos((double)f, (double)posY, (double)(l + 64)).endVertex();
+            }
+        }
+    }
+
+    private void generateEndSky()
+    {
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder bufferBuilder = tessellator.getBuffer();
+
+        if (this.vboEnabled)
+        {
+            this.endSkyVBO = new net.minecraft.client.renderer.vertex.VertexBuffer(DefaultVertexFormats.POSITION_TEX_COLOR);
+            this.renderEndSky(bufferBuilder);
+            bufferBuilder.finishDrawing();
+            bufferBuilder.reset();
+            this.endSkyVBO.bufferData(bufferBuilder.getByteBuffer());
+        }
+        else
+        {
+            this.glEndSkyList = GLAllocation.generateDisplayLists(1);
+            GlStateManager.glNewList(this.glEndSkyList, 4864);
+            this.renderEndSky(bufferBuilder);
+            tessellator.draw();
+            GlStateManager.glEndList();
+        }
+    }
+
+    /**
+     * Builds the six faces of the End skybox. This is the same bottom face that the vanilla
+     * End sky draws six times, just with the per-face rotations baked into the vertices.
+     */
+    private void renderEndSky(BufferBuilder bufferBuilder)
+    {
+        bufferBuilder.begin(7, DefaultVertexFormats.POSITION_TEX_COLOR);
+
+        for (int face = 0; face < 6; ++face)
+        {
+            this.addEndSkyVertex(bufferBuilder, face, -100.0D, -100.0D, -100.0D,  0.0D,  0.0D);
+            this.addEndSkyVertex(bufferBuilder, face, -100.0D, -100.0D,  100.0D,  0.0D, 16.0D);
+            this.addEndSkyVertex(bufferBuilder, face,  100.0D, -100.0D,  100.0D, 16.0D, 16.0D);
+            this.addEndSkyVertex(bufferBuilder, face,  100.0D, -100.0D, -100.0D, 16.0D,  0.0D);
+        }
+    }
+
+    private void addEndSkyVertex(BufferBuilder bufferBuilder, int face, double x, double y, double z, double u, double v)
+    {
+        double tmp;
+
+        switch (face)
+        {
+            // rotate(90, 1, 0, 0)
+            case 1: tmp = y; y = -z; z = tmp; break;
+            // rotate(-90, 1, 0, 0)
+            case 2: tmp = y; y = z; z = -tmp; break;
+            // rotate(180, 1, 0, 0)
+            case 3: y = -y; z = -z; break;
+            // rotate(90, 0, 0, 1)
+            case 4: tmp = x; x = -y; y = tmp; break;
+            // rotate(-90, 0, 0, 1)
+            case 5: tmp = x; x = y; y = -tmp; break;
+            default:
+        }
+
+        bufferBuilder.pos(x, y, z).tex(u, v).color(40, 40, 40, 255).endVertex();
+    }
+
+    private void generateStars()
+    {
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder bufferBuilder = tessellator.getBuffer();
+
+        if (this.starVBO != null)
+        {
+            this.starVBO.deleteGlBuffers();
+        }
+
+        if (this.starGLCallList >= 0)
+        {
+            GLAllocation.deleteDisplayLists(this.starGLCallList);
+            this.starGLCallList = -1;
+        }
+
+        if (this.vboEnabled)
+        {
+            this.starVBO = new net.minecraft.client.renderer.vertex.VertexBuffer(this.vertexBufferFormat);
+            this.renderStars(bufferBuilder);
+            bufferBuilder.finishDrawing();
+            bufferBuilder.reset();
+            this.starVBO.bufferData(bufferBuilder.getByteBuffer());
+        }
+        else
+        {
+            this.starGLCallList = GLAllocation.generateDisplayLists(1);
+            GlStateManager.pushMatrix();
+            GlStateManager.glNewList(this.starGLCallList, 4864);
+            this.renderStars(bufferBuilder);
+            tessellator.draw();
+            GlStateManager.glEndList();
+            GlStateManager.popMatrix();
+        }
+    }
+
+    private void renderStars(BufferBuilder bufferBuilder)
+    {
+        Random random = new Random(10842L);
+        bufferBuilder.begin(7, DefaultVertexFormats.POSITION);
+
+        for (int i = 0; i < 1500; ++i)
+        {
+            double d0 = (double)(random.nextFloat() * 2.0F - 1.0F);
+            double d1 = (double)(random.nextFloat() * 2.0F - 1.0F);
+            double d2 = (double)(random.nextFloat() * 2.0F - 1.0F);
+            double d3 = (double)(0.15F + random.nextFloat() * 0.1F);
+            double d4 = d0 * d0 + d1 * d1 + d2 * d2;
+
+            if (d4 < 1.0D && d4 > 0.01D)
+            {
+                d4 = 1.0D / Math.sqrt(d4);
+                d0 = d0 * d4;
+                d1 = d1 * d4;
+                d2 = d2 * d4;
+                double d5 = d0 * 100.0D;
+                double d6 = d1 * 100.0D;
+                double d7 = d2 * 100.0D;
+                double d8 = Math.atan2(d0, d2);
+                double d9 = Math.sin(d8);
+                double d10 = Math.cos(d8);
+                double d11 = Math.atan2(Math.sqrt(d0 * d0 + d2 * d2), d1);
+                double d12 = Math.sin(d11);
+                double d13 = Math.cos(d11);
+                double d14 = random.nextDouble() * Math.PI * 2.0D;
+                double d15 = Math.sin(d14);
+                double d16 = Math.cos(d14);
+
+                for (int j = 0; j < 4; ++j)
+                {
+                    double d18 = (double)((j & 2) - 1) * d3;
+                    double d19 = (double)((j + 1 & 2) - 1) * d3;
+                    double d21 = d18 * d16 - d19 * d15;
+                    double d22 = d19 * d16 + d18 * d15;
+                    double d23 = d21 * d12 + 0.0D * d13;
+                    double d24 = 0.0D * d12 - d21 * d13;
+                    double d25 = d24 * d9 - d22 * d10;
+                    double d26 = d22 * d9 + d24 * d10;
+                    bufferBuilder.pos(d5 + d25, d6 + d23, d7 + d26).endVertex();
+                }
+            }
+        }
+    }
+}
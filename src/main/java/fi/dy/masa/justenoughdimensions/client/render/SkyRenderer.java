@@ -1,18 +1,18 @@
 package fi.dy.masa.justenoughdimensions.client.render;
 
-import java.util.Random;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.lang3.tuple.Pair;
 import org.lwjgl.opengl.GL11;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.WorldClient;
 import net.minecraft.client.renderer.BufferBuilder;
-import net.minecraft.client.renderer.GLAllocation;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.RenderHelper;
 import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
-import net.minecraft.client.renderer.vertex.VertexFormat;
-import net.minecraft.client.renderer.vertex.VertexFormatElement;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
@@ -23,16 +23,12 @@ public class SkyRenderer extends net.minecraftforge.client.IRenderHandler
     private static final ResourceLocation MOON_PHASES_TEXTURES  = new ResourceLocation("textures/environment/moon_phases.png");
     private static final ResourceLocation SUN_TEXTURES          = new ResourceLocation("textures/environment/sun.png");
 
-    private int skyRenderType;
-    private SkySettings skySettings;
-    private boolean vboEnabled;
-    private int starGLCallList = -1;
-    private int glSkyList = -1;
-    private int glSkyList2 = -1;
-    private final VertexFormat vertexBufferFormat;
-    private net.minecraft.client.renderer.vertex.VertexBuffer starVBO;
-    private net.minecraft.client.renderer.vertex.VertexBuffer skyVBO;
-    private net.minecraft.client.renderer.vertex.VertexBuffer sky2VBO;
+    private static final Map<Pair<Integer, SkySettings>, SkyRenderer> RENDERERS = new HashMap<>();
+
+    private final int skyRenderType;
+    private final SkySettings skySettings;
+    private final SkyGeometry geometry;
+    private int refCount;
 
     public static class SkySettings
     {
@@ -43,18 +39,68 @@ public class SkyRenderer extends net.minecraftforge.client.IRenderHandler
         public float sunScale;
         public Vec3d moonColor;
         public Vec3d sunColor;
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(this.disableSun, this.disableMoon, this.disableStars,
+                    this.moonScale, this.sunScale, this.moonColor, this.sunColor);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) { return true; }
+            if (obj == null || this.getClass() != obj.getClass()) { return false; }
+
+            SkySettings other = (SkySettings) obj;
+
+            return this.disableSun == other.disableSun &&
+                   this.disableMoon == other.disableMoon &&
+                   this.disableStars == other.disableStars &&
+                   Float.compare(this.moonScale, other.moonScale) == 0 &&
+                   Float.compare(this.sunScale, other.sunScale) == 0 &&
+                   Objects.equals(this.moonColor, other.moonColor) &&
+                   Objects.equals(this.sunColor, other.sunColor);
+        }
     }
 
-    public SkyRenderer(int skyRenderType, SkySettings settings)
+    private SkyRenderer(int skyRenderType, SkySettings settings)
     {
-        this.vboEnabled = OpenGlHelper.useVbo();
-        this.vertexBufferFormat = new VertexFormat();
-        this.vertexBufferFormat.addElement(new VertexFormatElement(0, VertexFormatElement.EnumType.FLOAT, VertexFormatElement.EnumUsage.POSITION, 3));
         this.skyRenderType = skyRenderType;
         this.skySettings = settings;
-        this.generateStars();
-        this.generateSky();
-        this.generateSky2();
+        this.geometry = SkyGeometry.acquire();
+    }
+
+    /**
+     * Returns a SkyRenderer for the given type and settings. The renderers are shared
+     * between all the worlds that use the same settings. Each call must be matched
+     * by a call to release() when the renderer is no longer used.
+     */
+    public static SkyRenderer acquire(int skyRenderType, SkySettings settings)
+    {
+        Pair<Integer, SkySettings> key = Pair.of(skyRenderType, settings);
+        SkyRenderer renderer = RENDERERS.get(key);
+
+        // Don't reuse a renderer with geometry from before the VBO setting was changed
+        if (renderer == null || renderer.geometry.isVboEnabled() != OpenGlHelper.useVbo())
+        {
+            renderer = new SkyRenderer(skyRenderType, settings);
+            RENDERERS.put(key, renderer);
+        }
+
+        renderer.refCount++;
+
+        return renderer;
+    }
+
+    public void release()
+    {
+        if (--this.refCount <= 0)
+        {
+            RENDERERS.remove(Pair.of(this.skyRenderType, this.skySettings), this);
+            this.geometry.release();
+        }
     }
 
     @Override
@@ -79,46 +125,8 @@ public class SkyRenderer extends net.minecraftforge.client.IRenderHandler
         RenderHelper.disableStandardItemLighting();
         GlStateManager.depthMask(false);
         mc.getTextureManager().bindTexture(END_SKY_TEXTURES);
-        Tessellator tessellator = Tessellator.getInstance();
-        BufferBuilder bufferBuilder = tessellator.getBuffer();
-
-        for (int i = 0; i < 6; ++i)
-        {
-            GlStateManager.pushMatrix();
-
-            if (i == 1)
-            {
-                GlStateManager.rotate(90.0F, 1.0F, 0.0F, 0.0F);
-            }
 
-            if (i == 2)
-            {
-                GlStateManager.rotate(-90.0F, 1.0F, 0.0F, 0.0F);
-            }
-
-            if (i == 3)
-            {
-                GlStateManager.rotate(180.0F, 1.0F, 0.0F, 0.0F);
-            }
-
-            if (i == 4)
-            {
-                GlStateManager.rotate(90.0F, 0.0F, 0.0F, 1.0F);
-            }
-
-            if (i == 5)
-            {
-                GlStateManager.rotate(-90.0F, 0.0F, 0.0F, 1.0F);
-            }
-
-            bufferBuilder.begin(7, DefaultVertexFormats.POSITION_TEX_COLOR);
-            bufferBuilder.pos(-100.0D, -100.0D, -100.0D).tex(0.0D, 0.0D).color(40, 40, 40, 255).endVertex();
-            bufferBuilder.pos(-100.0D, -100.0D, 100.0D).tex(0.0D, 16.0D).color(40, 40, 40, 255).endVertex();
-            bufferBuilder.pos(100.0D, -100.0D, 100.0D).tex(16.0D, 16.0D).color(40, 40, 40, 255).endVertex();
-            bufferBuilder.pos(100.0D, -100.0D, -100.0D).tex(16.0D, 0.0D).color(40, 40, 40, 255).endVertex();
-            tessellator.draw();
-            GlStateManager.popMatrix();
-        }
+        this.geometry.drawEndSky();
 
         GlStateManager.depthMask(true);
         GlStateManager.enableTexture2D();
@@ -140,19 +148,7 @@ public class SkyRenderer extends net.minecraftforge.client.IRenderHandler
         GlStateManager.enableFog();
         GlStateManager.color(r, g, b);
 
-        if (this.vboEnabled)
-        {
-            this.skyVBO.bindBuffer();
-            GlStateManager.glEnableClientState(32884);
-            GlStateManager.glVertexPointer(3, 5126, 12, 0);
-            this.skyVBO.drawArrays(7);
-            this.skyVBO.unbindBuffer();
-            GlStateManager.glDisableClientState(32884);
-        }
-        else
-        {
-            GlStateManager.callList(this.glSkyList);
-        }
+        this.geometry.drawSky();
 
         GlStateManager.disableFog();
         GlStateManager.disableAlpha();
@@ -252,19 +248,7 @@ public class SkyRenderer extends net.minecraftforge.client.IRenderHandler
             {
                 GlStateManager.color(brightness, brightness, brightness, brightness);
 
-                if (this.vboEnabled)
-                {
-                    this.starVBO.bindBuffer();
-                    GlStateManager.glEnableClientState(32884);
-                    GlStateManager.glVertexPointer(3, 5126, 12, 0);
-                    this.starVBO.drawArrays(7);
-                    this.starVBO.unbindBuffer();
-                    GlStateManager.glDisableClientState(32884);
-                }
-                else
-                {
-                    GlStateManager.callList(this.starGLCallList);
-                }
+                this.geometry.drawStars();
             }
         }
 
@@ -282,19 +266,7 @@ public class SkyRenderer extends net.minecraftforge.client.IRenderHandler
             GlStateManager.pushMatrix();
             GlStateManager.translate(0.0F, 12.0F, 0.0F);
 
-            if (this.vboEnabled)
-            {
-                this.sky2VBO.bindBuffer();
-                GlStateManager.glEnableClientState(32884);
-                GlStateManager.glVertexPointer(3, 5126, 12, 0);
-                this.sky2VBO.drawArrays(7);
-                this.sky2VBO.unbindBuffer();
-                GlStateManager.glDisableClientState(32884);
-            }
-            else
-            {
-                GlStateManager.callList(this.glSkyList2);
-            }
+            this.geometry.drawSky2();
 
             GlStateManager.popMatrix();
             double d19 = -(d0 + 65.0D);
@@ -333,186 +305,9 @@ public class SkyRenderer extends net.minecraftforge.client.IRenderHandler
 
         GlStateManager.pushMatrix();
         GlStateManager.translate(0.0F, -((float)(d0 - 16.0D)), 0.0F);
-        GlStateManager.callList(this.glSkyList2);
+        this.geometry.callSky2List();
         GlStateManager.popMatrix();
         GlStateManager.enableTexture2D();
         GlStateManager.depthMask(true);
     }
-
-    private void generateSky2()
-    {
-        Tessellator tessellator = Tessellator.getInstance();
-        BufferBuilder bufferBuilder = tessellator.getBuffer();
-
-        if (this.sky2VBO != null)
-        {
-            this.sky2VBO.deleteGlBuffers();
-        }
-
-        if (this.glSkyList2 >= 0)
-        {
-            GLAllocation.deleteDisplayLists(this.glSkyList2);
-            this.glSkyList2 = -1;
-        }
-
-        if (this.vboEnabled)
-        {
-            this.sky2VBO = new net.minecraft.client.renderer.vertex.VertexBuffer(this.vertexBufferFormat);
-            this.renderSky(bufferBuilder, -16.0F, true);
-            bufferBuilder.finishDrawing();
-            bufferBuilder.reset();
-            this.sky2VBO.bufferData(bufferBuilder.getByteBuffer());
-        }
-        else
-        {
-            this.glSkyList2 = GLAllocation.generateDisplayLists(1);
-            GlStateManager.glNewList(this.glSkyList2, 4864);
-            this.renderSky(bufferBuilder, -16.0F, true);
-            tessellator.draw();
-            GlStateManager.glEndList();
-        }
-    }
-
-    private void generateSky()
-    {
-        Tessellator tessellator = Tessellator.getInstance();
-        BufferBuilder bufferBuilder = tessellator.getBuffer();
-
-        if (this.skyVBO != null)
-        {
-            this.skyVBO.deleteGlBuffers();
-        }
-
-        if (this.glSkyList >= 0)
-        {
-            GLAllocation.deleteDisplayLists(this.glSkyList);
-            this.glSkyList = -1;
-        }
-
-        if (this.vboEnabled)
-        {
-            this.skyVBO = new net.minecraft.client.renderer.vertex.VertexBuffer(this.vertexBufferFormat);
-            this.renderSky(bufferBuilder, 16.0F, false);
-            bufferBuilder.finishDrawing();
-            bufferBuilder.reset();
-            this.skyVBO.bufferData(bufferBuilder.getByteBuffer());
-        }
-        else
-        {
-            this.glSkyList = GLAllocation.generateDisplayLists(1);
-            GlStateManager.glNewList(this.glSkyList, 4864);
-            this.renderSky(bufferBuilder, 16.0F, false);
-            tessellator.draw();
-            GlStateManager.glEndList();
-        }
-    }
-
-    private void renderSky(BufferBuilder bufferBuilder, float posY, boolean reverseX)
-    {
-        bufferBuilder.begin(7, DefaultVertexFormats.POSITION);
-
-        for (int k = -384; k <= 384; k += 64)
-        {
-            for (int l = -384; l <= 384; l += 64)
-            {
-                float f = (float)k;
-                float f1 = (float)(k + 64);
-
-                if (reverseX)
-                {
-                    f1 = (float)k;
-                    f = (float)(k + 64);
-                }
-
-                bufferBuilder.pos((double)f, (double)posY, (double)l).endVertex();
-                bufferBuilder.pos((double)f1, (double)posY, (double)l).endVertex();
-                bufferBuilder.pos((double)f1, (double)posY, (double)(l + 64)).endVertex();
-                bufferBuilder.pos((double)f, (double)posY, (double)(l + 64)).endVertex();
-            }
-        }
-    }
-
-    private void generateStars()
-    {
-        Tessellator tessellator = Tessellator.getInstance();
-        BufferBuilder bufferBuilder = tessellator.getBuffer();
-
-        if (this.starVBO != null)
-        {
-            this.starVBO.deleteGlBuffers();
-        }
-
-        if (this.starGLCallList >= 0)
-        {
-            GLAllocation.deleteDisplayLists(this.starGLCallList);
-            this.starGLCallList = -1;
-        }
-
-        if (this.vboEnabled)
-        {
-            this.starVBO = new net.minecraft.client.renderer.vertex.VertexBuffer(this.vertexBufferFormat);
-            this.renderStars(bufferBuilder);
-            bufferBuilder.finishDrawing();
-            bufferBuilder.reset();
-            this.starVBO.bufferData(bufferBuilder.getByteBuffer());
-        }
-        else
-        {
-            this.starGLCallList = GLAllocation.generateDisplayLists(1);
-            GlStateManager.pushMatrix();
-            GlStateManager.glNewList(this.starGLCallList, 4864);
-            this.renderStars(bufferBuilder);
-            tessellator.draw();
-            GlStateManager.glEndList();
-            GlStateManager.popMatrix();
-        }
-    }
-
-    private void renderStars(BufferBuilder bufferBuilder)
-    {
-        Random random = new Random(10842L);
-        bufferBuilder.begin(7, DefaultVertexFormats.POSITION);
-
-        for (int i = 0; i < 1500; ++i)
-        {
-            double d0 = (double)(random.nextFloat() * 2.0F - 1.0F);
-            double d1 = (double)(random.nextFloat() * 2.0F - 1.0F);
-            double d2 = (double)(random.nextFloat() * 2.0F - 1.0F);
-            double d3 = (double)(0.15F + random.nextFloat() * 0.1F);
-            double d4 = d0 * d0 + d1 * d1 + d2 * d2;
-
-            if (d4 < 1.0D && d4 > 0.01D)
-            {
-                d4 = 1.0D / Math.sqrt(d4);
-                d0 = d0 * d4;
-                d1 = d1 * d4;
-                d2 = d2 * d4;
-                double d5 = d0 * 100.0D;
-                double d6 = d1 * 100.0D;
-                double d7 = d2 * 100.0D;
-                double d8 = Math.atan2(d0, d2);
-                double d9 = Math.sin(d8);
-                double d10 = Math.cos(d8);
-                double d11 = Math.atan2(Math.sqrt(d0 * d0 + d2 * d2), d1);
-                double d12 = Math.sin(d11);
-                double d13 = Math.cos(d11);
-                double d14 = random.nextDouble() * Math.PI * 2.0D;
-                double d15 = Math.sin(d14);
-                double d16 = Math.cos(d14);
-
-                for (int j = 0; j < 4; ++j)
-                {
-                    double d18 = (double)((j & 2) - 1) * d3;
-                    double d19 = (double)((j + 1 & 2) - 1) * d3;
-                    double d21 = d18 * d16 - d19 * d15;
-                    double d22 = d19 * d16 + d18 * d15;
-                    double d23 = d21 * d12 + 0.0D * d13;
-                    double d24 = 0.0D * d12 - d21 * d13;
-                    double d25 = d24 * d9 - d22 * d10;
-                    double d26 = d22 * d9 + d24 * d10;
-                    bufferBuilder.pos(d5 + d25, d6 + d23, d7 + d26).endVertex();
-                }
-            }
-        }
-    }
 }
@@ -3,6 +3,7 @@ package fi.dy.masa.justenoughdimensions.command;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang3.StringUtils;
 import net.minecraft.command.CommandBase;
 import net.minecraft.command.CommandException;
@@ -15,6 +16,7 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
+import net.minecraft.util.text.TextFormatting;
 import net.minecraft.world.DimensionType;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.World;
@@ -35,9 +37,12 @@ import fi.dy.masa.justenoughdimensions.command.utils.CommandJEDWorldBorder;
 import fi.dy.masa.justenoughdimensions.config.Configs;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfig;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfig.WorldInfoType;
+import fi.dy.masa.justenoughdimensions.config.DimensionConfigEntry;
 import fi.dy.masa.justenoughdimensions.config.DimensionTypeEntry;
+import fi.dy.masa.justenoughdimensions.util.JEDFileIO;
 import fi.dy.masa.justenoughdimensions.util.JEDJsonUtils;
 import fi.dy.masa.justenoughdimensions.util.world.DimensionDump;
+import fi.dy.masa.justenoughdimensions.util.world.WorldInfoPrefetcher;
 import fi.dy.masa.justenoughdimensions.util.world.WorldUtils;
 import fi.dy.masa.justenoughdimensions.world.JEDWorldProperties;
 
@@ -75,10 +80,12 @@ public class CommandJED extends CommandBase
                     "difficulty",
                     "dimbuilder",
                     "gamerule",
+                    "io-stats",
                     "list-loaded-dimensions",
                     "list-registered-dimensions",
                     "load-dimension",
                     "register",
+                    "register-range",
                     "reload",
                     "reload-main-config",
                     "seed",
@@ -215,10 +222,9 @@ public class CommandJED extends CommandBase
 
         if (cmd.equals("reload"))
         {
-            DimensionConfig.instance().unregisterCustomDimensions();
-            DimensionConfig.instance().readDimensionConfig();
-            DimensionConfig.instance().registerDimensions();
-            notifyCommandListener(sender, this, "jed.commands.reloaded");
+            DimensionConfig.ReloadResult result = DimensionConfig.instance().reloadDimensionConfig();
+            notifyCommandListener(sender, this, "jed.commands.reloaded.changes", Integer.valueOf(result.getAdded().size()),
+                    Integer.valueOf(result.getRemoved().size()), Integer.valueOf(result.getChanged().size()));
         }
         else if (cmd.equals("reload-main-config"))
         {
@@ -245,6 +251,13 @@ public class CommandJED extends CommandBase
             sender.sendMessage(new TextComponentTranslation("jed.commands.listdims.list", String.join(", ", dimsStr)));
             sender.sendMessage(new TextComponentTranslation("jed.commands.info.output.printed.to.console.full"));
         }
+        else if (cmd.equals("io-stats"))
+        {
+            for (String line : JEDFileIO.INSTANCE.getStatistics())
+            {
+                sender.sendMessage(new TextComponentString(line));
+            }
+        }
         else if (cmd.equals("list-loaded-dimensions"))
         {
             for (String line : DimensionDump.getFormattedLoadedDimensionsDump())
@@ -263,15 +276,17 @@ public class CommandJED extends CommandBase
         {
             if (args.length == 1)
             {
-                int dimension = parseInt(args[0]);
+                final int dimension = parseInt(args[0]);
+                CompletableFuture<?> prefetch = WorldInfoPrefetcher.prefetch(server, DimensionManager.getCurrentSaveRootDirectory(), dimension);
 
-                if (server.getWorld(dimension) != null)
+                // Read the dimension's jed_level.dat in the background first, and then load the world on the server thread
+                if (prefetch != null)
                 {
-                    sender.sendMessage(new TextComponentTranslation("jed.commands.info.loaded.dimension", String.valueOf(dimension)));
+                    prefetch.whenComplete((nbt, error) -> server.addScheduledTask(() -> this.loadDimensionAndNotify(server, sender, dimension)));
                 }
                 else
                 {
-                    throwCommand("load_dimension_failed", String.valueOf(dimension));
+                    this.loadDimension(server, sender, dimension);
                 }
             }
             else
@@ -287,6 +302,10 @@ public class CommandJED extends CommandBase
         {
             this.register(args, sender);
         }
+        else if (cmd.equals("register-range"))
+        {
+            this.registerRange(args, sender);
+        }
         else if (cmd.equals("unregister"))
         {
             if (args.length == 1)
@@ -527,6 +546,32 @@ public class CommandJED extends CommandBase
         return server.getWorld(0).getGameRules();
     }
 
+    private void loadDimension(MinecraftServer server, ICommandSender sender, int dimension) throws CommandException
+    {
+        if (server.getWorld(dimension) != null)
+        {
+            sender.sendMessage(new TextComponentTranslation("jed.commands.info.loaded.dimension", String.valueOf(dimension)));
+        }
+        else
+        {
+            throwCommand("load_dimension_failed", String.valueOf(dimension));
+        }
+    }
+
+    private void loadDimensionAndNotify(MinecraftServer server, ICommandSender sender, int dimension)
+    {
+        try
+        {
+            this.loadDimension(server, sender, dimension);
+        }
+        catch (CommandException e)
+        {
+            TextComponentTranslation message = new TextComponentTranslation(e.getMessage(), e.getErrorObjects());
+            message.getStyle().setColor(TextFormatting.RED);
+            sender.sendMessage(message);
+        }
+    }
+
     private void register(String[] args, ICommandSender sender) throws CommandException
     {
         if (args.length == 1)
@@ -555,6 +600,24 @@ public class CommandJED extends CommandBase
         }
     }
 
+    private void registerRange(String[] args, ICommandSender sender) throws CommandException
+    {
+        if (args.length == 2)
+        {
+            int start = parseInt(args[0]);
+            int maxEnd = (int) Math.min((long) start + DimensionConfig.MAX_REGISTER_RANGE_SIZE - 1L, Integer.MAX_VALUE);
+            int end = parseInt(args[1], start, maxEnd);
+            List<DimensionConfigEntry> entries = DimensionConfig.instance().registerNewDimensionRange(start, end);
+
+            notifyCommandListener(sender, this, "jed.commands.register.range",
+                    Integer.valueOf(entries.size()), Integer.valueOf(start), Integer.valueOf(end));
+        }
+        else
+        {
+            throwUsage("register_range", Integer.valueOf(DimensionConfig.MAX_REGISTER_RANGE_SIZE));
+        }
+    }
+
     private boolean unregister(int dimension) throws CommandException
     {
         if (DimensionManager.isDimensionRegistered(dimension))
@@ -564,6 +627,7 @@ public class CommandJED extends CommandBase
                 if (dimension != 0)
                 {
                     DimensionManager.unregisterDimension(dimension);
+                    DimensionConfig.instance().onDimensionUnregistered(dimension);
                     return true;
                 }
             }
@@ -12,6 +12,7 @@ import fi.dy.masa.justenoughdimensions.reference.Reference;
 import fi.dy.masa.justenoughdimensions.util.ConfigFileUtils;
 import fi.dy.masa.justenoughdimensions.util.ConfigFileUtils.ConfigComparator;
 import fi.dy.masa.justenoughdimensions.util.ConfigFileUtils.FileAction;
+import fi.dy.masa.justenoughdimensions.util.ConfigFileWatcher;
 
 public class Configs
 {
@@ -39,11 +40,15 @@ public class Configs
     public static boolean enableUnregisteringDimensions;
 
     public static boolean copyDimensionConfigToWorld;
+    public static boolean enableConfigFileWatcher;
+    public static int configFileWatcherDelay;
     public static boolean copyMainConfigToWorld;
     public static boolean usePerWorldDimensionConfig;
     public static boolean usePerWorldMainConfig;
 
     public static int initialSpawnDimensionId;
+    public static int worldTemplateCopyThreads;
+    public static boolean worldTemplateUseReflinks;
     public static GameType normalGameMode = GameType.SURVIVAL;
 
     @SubscribeEvent
@@ -175,6 +180,18 @@ public class Configs
                         "NOTE: This option ONLY affects whether or not the config is automatically _copied to_ each world.");
         copyMainConfigToWorld = prop.getBoolean();
 
+        prop = conf.get(CATEGORY_CONFIG_HANDLING, "enableConfigFileWatcher", false).setRequiresWorldRestart(true).setRequiresMcRestart(false);
+        prop.setComment("If enabled, then the config files are watched for changes while a world is running,\n" +
+                        "and 'dimensions.json' and the main config are automatically reloaded when their contents change.\n" +
+                        "The dimension config reload only applies the changed dimension entries, like '/jed reload'.");
+        enableConfigFileWatcher = prop.getBoolean();
+
+        prop = conf.get(CATEGORY_CONFIG_HANDLING, "configFileWatcherDelay", 1000, "", 100, 60000).setRequiresMcRestart(false);
+        prop.setComment("The delay in milliseconds after the last detected file change,\n" +
+                        "before the config file watcher reloads the configs.\n" +
+                        "This allows a burst of saves from an editor to only cause one reload.");
+        configFileWatcherDelay = prop.getInt();
+
         prop = conf.get(CATEGORY_CONFIG_HANDLING, "usePerWorldDimensionConfig", false).setRequiresWorldRestart(true).setRequiresMcRestart(false);
         prop.setComment("If enabled, then the dimension config ('dimensions.json')\n" +
                         "will read from within each world/save, if it exists there.\n" +
@@ -256,6 +273,17 @@ public class Configs
         prop.setComment("If enabled with the enableInitialSpawnDimensionOverride option, this will be used as the initial spawn dimension ID");
         initialSpawnDimensionId = prop.getInt();
 
+        prop = conf.get(CATEGORY_GENERIC, "worldTemplateCopyThreads", 4, "", 1, 32).setRequiresMcRestart(false);
+        prop.setComment("The number of threads used to copy the region files of template worlds");
+        worldTemplateCopyThreads = prop.getInt();
+
+        prop = conf.get(CATEGORY_GENERIC, "worldTemplateUseReflinks", false).setRequiresMcRestart(false);
+        prop.setComment("If enabled, then on Linux the template world region files are copied as reflinks\n" +
+                        "(copy-on-write clones, via 'cp --reflink=always'), if the filesystem supports it (btrfs, XFS etc.).\n" +
+                        "The clones share the disk blocks with the template until the dimension modifies them.\n" +
+                        "Falls back to normal copying if the reflink fails.");
+        worldTemplateUseReflinks = prop.getBoolean();
+
         prop = conf.get(CATEGORY_GENERIC, "normalGameMode", "survival");
         prop.setComment("If the players first join into a ForceGameMode dimension, then this option sets the \"normal\"\n" +
                         "game mode they should get when they leave that dimension for a non-ForceGameMode dimension.\n" +
@@ -294,6 +322,7 @@ public class Configs
         if (conf.hasChanged())
         {
             conf.save();
+            ConfigFileWatcher.onFileWritten(conf.getConfigFile());
         }
     }
 
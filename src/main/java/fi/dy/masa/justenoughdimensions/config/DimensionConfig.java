@@ -7,11 +7,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.tuple.Pair;
 import com.google.gson.JsonArray;
@@ -20,10 +17,12 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.*;
 import net.minecraft.util.text.TextComponentString;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.DimensionType;
+import net.minecraft.world.World;
 import net.minecraft.world.WorldProvider;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.util.Constants;
@@ -35,26 +34,41 @@ import fi.dy.masa.justenoughdimensions.reference.Reference;
 import fi.dy.masa.justenoughdimensions.util.ConfigFileUtils;
 import fi.dy.masa.justenoughdimensions.util.ConfigFileUtils.ConfigComparator;
 import fi.dy.masa.justenoughdimensions.util.ConfigFileUtils.FileAction;
+import fi.dy.masa.justenoughdimensions.util.ConfigFileWatcher;
 import fi.dy.masa.justenoughdimensions.util.JEDJsonUtils;
+import fi.dy.masa.justenoughdimensions.util.world.WorldUtils;
 import fi.dy.masa.justenoughdimensions.world.JEDWorldProperties;
 import fi.dy.masa.justenoughdimensions.world.WorldProviderSurfaceJED;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 
 public class DimensionConfig
 {
+    /** The maximum number of dimension IDs that can be registered at once with registerNewDimensionRange() */
+    public static final int MAX_REGISTER_RANGE_SIZE = 1024;
     private static DimensionConfig instance;
     private final File configDirJED;
     private final File dimensionConfigFileGlobal;
-    private final Set<Integer> registeredDimensions = new HashSet<Integer>();
-    private final Map<Integer, DimensionConfigEntry> dimensions = new HashMap<Integer, DimensionConfigEntry>();
-    private final Map<Integer, NBTTagCompound> customWorldInfo = new HashMap<Integer, NBTTagCompound>();
-    private final Map<Integer, NBTTagCompound> onetimeWorldInfo = new HashMap<Integer, NBTTagCompound>();
+    private final IntSet registeredDimensions = new IntOpenHashSet();
+    private final Int2ObjectMap<DimensionConfigEntry> dimensions = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<DimensionConfigEntry> deferredEntries = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<WorldInfoPatch> customWorldInfo = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<WorldInfoPatch> onetimeWorldInfo = new Int2ObjectOpenHashMap<>();
     private final Map<String, Integer> worldInfoKeys = new HashMap<String, Integer>();
     private final Map<String, Integer> jedKeys = new HashMap<String, Integer>();
     private final Map<String, Integer> jedKeysListTypes = new HashMap<String, Integer>();
     private JsonObject dimBuilderData = new JsonObject();
-    private File currentDimensionConfigFile;
+    // Also read by the config file watcher thread
+    private volatile File currentDimensionConfigFile;
     private String currentConfigId = "__default";
     private int currentConfigVersion;
+    private int registryGeneration;
+    @Nullable
+    private MessageSyncDimensions.RegistrySnapshot registrySnapshot;
 
     private DimensionConfig(File configDirCommon)
     {
@@ -81,12 +95,19 @@ public class DimensionConfig
         return this.configDirJED;
     }
 
+    @Nullable
+    public File getCurrentDimensionConfigFile()
+    {
+        return this.currentDimensionConfigFile;
+    }
+
     public Collection<DimensionConfigEntry> getRegisteredDimensions()
     {
         List<DimensionConfigEntry> list = new ArrayList<>();
 
-        for (int dim : this.registeredDimensions)
+        for (IntIterator iter = this.registeredDimensions.iterator(); iter.hasNext(); )
         {
+            int dim = iter.nextInt();
             DimensionConfigEntry entry = this.dimensions.get(dim);
 
             if (entry != null)
@@ -165,25 +186,63 @@ public class DimensionConfig
 
     public boolean useCustomWorldInfoFor(int dimension)
     {
-        return this.customWorldInfo.containsKey(dimension) || this.onetimeWorldInfo.containsKey(dimension);
+        if (this.customWorldInfo.containsKey(dimension) || this.onetimeWorldInfo.containsKey(dimension))
+        {
+            return true;
+        }
+
+        DimensionConfigEntry entry = this.deferredEntries.get(dimension);
+
+        return entry != null && entry.hasWorldInfoValues();
     }
 
-    public void setWorldInfoValues(int dimension, NBTTagCompound tagIn, WorldInfoType type)
+    /**
+     * Reads and applies the deferred worldinfo and jed values of the given dimension,
+     * if it was read from the dimensions.d directory and they haven't been applied yet.
+     * This should be called before the dimension loads.
+     * @param dimension
+     */
+    public synchronized void loadDeferredDimensionConfig(int dimension)
     {
-        Map<Integer, NBTTagCompound> map = type == WorldInfoType.ONE_TIME ? this.onetimeWorldInfo : this.customWorldInfo;
-        NBTTagCompound dimNBT = map.get(dimension);
+        DimensionConfigEntry entry = this.deferredEntries.remove(dimension);
 
-        if (dimNBT != null)
+        if (entry != null)
         {
-            // Support randomized seeds that get randomized every time the values are applied
-            if (dimNBT.hasKey("RandomSeed", Constants.NBT.TAG_STRING))
+            JustEnoughDimensions.logInfo("Reading the deferred config values of dimension {} from file '{}'",
+                    dimension, entry.getConfigSource());
+
+            if (entry.loadDeferredPayloads() == false)
             {
-                dimNBT = dimNBT.copy();
-                dimNBT.removeTag("RandomSeed");
-                dimNBT.setLong("RandomSeed", JustEnoughDimensions.RAND.nextLong());
+                // The file has changed or couldn't be read, try to re-read the whole entry
+                DimensionConfigEntry newEntry = DimensionConfigDirectory.readFullEntry(entry);
+
+                if (newEntry == null)
+                {
+                    JustEnoughDimensions.logger.error("Failed to read the config of dimension {} from file '{}', " +
+                            "its worldinfo, jed and spawn_structure values are not applied", dimension, entry.getConfigSource());
+                    return;
+                }
+
+                JustEnoughDimensions.logger.warn("Re-read the changed config of dimension {} from file '{}', " +
+                        "any changes to the registration related values need a config reload", dimension, entry.getConfigSource());
+                entry = newEntry;
             }
 
-            tagIn.merge(dimNBT);
+            this.applyDimensionConfigEntry(entry);
+        }
+    }
+
+    public void setWorldInfoValues(int dimension, NBTTagCompound tagIn, WorldInfoType type)
+    {
+        this.loadDeferredDimensionConfig(dimension);
+
+        Int2ObjectMap<WorldInfoPatch> map = type == WorldInfoType.ONE_TIME ? this.onetimeWorldInfo : this.customWorldInfo;
+        WorldInfoPatch patch = map.get(dimension);
+
+        // An empty "worldinfo" object still makes the dimension use its own WorldInfo, but there is nothing to apply
+        if (patch != null && patch.isEmpty() == false)
+        {
+            patch.applyTo(tagIn);
         }
     }
 
@@ -196,6 +255,12 @@ public class DimensionConfig
     }
 
     public void readDimensionConfig(File worldDir)
+    {
+        this.currentDimensionConfigFile = this.getDimensionConfigFile(worldDir);
+        this.readDimensionConfigFromFile(this.currentDimensionConfigFile);
+    }
+
+    private File getDimensionConfigFile(@Nullable File worldDir)
     {
         if (worldDir != null)
         {
@@ -216,24 +281,149 @@ public class DimensionConfig
 
             if (Configs.usePerWorldDimensionConfig && configFile.exists() && configFile.isFile() && configFile.canRead())
             {
-                this.currentDimensionConfigFile = configFile;
-                this.readDimensionConfigFromFile(this.currentDimensionConfigFile);
-                return;
+                return configFile;
             }
         }
 
-        this.currentDimensionConfigFile = this.dimensionConfigFileGlobal;
-        this.readDimensionConfigFromFile(this.currentDimensionConfigFile);
+        return this.dimensionConfigFileGlobal;
     }
 
-    private void readDimensionConfigFromFile(File configFile)
+    private synchronized void readDimensionConfigFromFile(File configFile)
     {
         this.customWorldInfo.clear();
         this.onetimeWorldInfo.clear();
         this.dimensions.clear();
+        this.deferredEntries.clear();
+        this.invalidateRegistrySnapshot();
+        JEDWorldProperties.clearWorldProperties();
+
+        for (DimensionConfigEntry entry : this.parseDimensionConfigFile(configFile).values())
+        {
+            this.applyDimensionConfigEntry(entry);
+        }
+
+        this.restoreMissingVanillaDimensions();
+    }
+
+    /**
+     * Re-reads the dimension config from file, and only applies the entries that have been
+     * added, removed or changed since the config was last read. The unchanged entries
+     * are left alone. Players in the changed dimensions get their world properties re-synced.
+     * @return the dimensions that were added, removed and changed
+     */
+    public ReloadResult reloadDimensionConfig()
+    {
+        this.currentDimensionConfigFile = this.getDimensionConfigFile(DimensionManager.getCurrentSaveRootDirectory());
+        Map<Integer, DimensionConfigEntry> newEntries = this.parseDimensionConfigFile(this.currentDimensionConfigFile);
+        ReloadResult result = new ReloadResult();
+        List<DimensionConfigEntry> registered = new ArrayList<>();
+        List<Integer> unregistered = new ArrayList<>();
+
+        for (int dimension : new IntArrayList(this.dimensions.keySet()))
+        {
+            if (newEntries.containsKey(dimension) == false)
+            {
+                if (this.unregisterCustomDimension(dimension))
+                {
+                    unregistered.add(dimension);
+                }
+
+                this.removeDimension(dimension);
+                result.removed.add(dimension);
+            }
+        }
+
+        for (DimensionConfigEntry entry : newEntries.values())
+        {
+            final int dimension = entry.getDimension();
+            DimensionConfigEntry oldEntry = this.dimensions.get(dimension);
+
+            if (oldEntry != null && oldEntry.isSameConfigAs(entry))
+            {
+                // Restore any unchanged dimensions that have been unregistered via the command
+                if (DimensionManager.isDimensionRegistered(dimension) == false && this.registerDimension(dimension, oldEntry))
+                {
+                    registered.add(oldEntry);
+                }
+
+                continue;
+            }
+
+            if (oldEntry != null)
+            {
+                if (this.unregisterCustomDimension(dimension))
+                {
+                    unregistered.add(dimension);
+                }
+
+                this.removeDimension(dimension);
+                result.changed.add(dimension);
+            }
+            else
+            {
+                result.added.add(dimension);
+            }
+
+            this.applyDimensionConfigEntry(entry);
+
+            if (this.registerDimension(dimension, entry))
+            {
+                registered.add(entry);
+            }
+        }
+
+        this.restoreMissingVanillaDimensions();
+        this.syncRegistryChanges(registered, unregistered);
+
+        this.syncWorldPropertiesToPlayersIn(result.added);
+        this.syncWorldPropertiesToPlayersIn(result.removed);
+        this.syncWorldPropertiesToPlayersIn(result.changed);
+
+        JustEnoughDimensions.logInfo("Reloaded the dimension config: added: {}, removed: {}, changed: {}",
+                result.added, result.removed, result.changed);
+
+        return result;
+    }
+
+    private void syncWorldPropertiesToPlayersIn(Collection<Integer> dimensions)
+    {
+        for (int dimension : dimensions)
+        {
+            World world = DimensionManager.getWorld(dimension);
+
+            if (world != null)
+            {
+                for (EntityPlayer player : world.playerEntities)
+                {
+                    WorldUtils.syncWorldProviderProperties(player);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the dimension entries from the given dimensions.json file and from
+     * the dimensions.d directory next to it. The entries in the dimensions.json file
+     * take precedence over the entries in the dimensions.d directory.
+     */
+    private Map<Integer, DimensionConfigEntry> parseDimensionConfigFile(File configFile)
+    {
+        Map<Integer, DimensionConfigEntry> entries = new HashMap<>();
+
+        if (configFile != null)
+        {
+            entries.putAll(DimensionConfigDirectory.readDirectory(DimensionConfigDirectory.getDirectoryFor(configFile)));
+        }
+
+        entries.putAll(this.parseDimensionConfigJsonFile(configFile));
+
+        return entries;
+    }
+
+    private Map<Integer, DimensionConfigEntry> parseDimensionConfigJsonFile(File configFile)
+    {
         this.currentConfigId = "__default";
         this.currentConfigVersion = 0;
-        JEDWorldProperties.clearWorldProperties();
 
         if (configFile != null && configFile.exists() && configFile.isFile() && configFile.canRead())
         {
@@ -243,7 +433,7 @@ public class DimensionConfig
             if (rootElement != null)
             {
                 JustEnoughDimensions.logInfo("Reading the dimension config from file '{}'", fileName);
-                this.parseDimensionConfig(rootElement);
+                return this.parseDimensionConfig(rootElement);
             }
             else
             {
@@ -255,7 +445,7 @@ public class DimensionConfig
             JustEnoughDimensions.logger.warn("No 'dimensions.json' file found; neither global nor per-world");
         }
 
-        this.restoreMissingVanillaDimensions();
+        return new HashMap<>();
     }
 
     private void restoreMissingVanillaDimensions()
@@ -286,12 +476,17 @@ public class DimensionConfig
 
     public void registerDimensions()
     {
+        List<DimensionConfigEntry> registered = new ArrayList<>();
+
         for (DimensionConfigEntry entry : this.dimensions.values())
         {
-            this.registerDimension(entry.getDimension(), entry);
+            if (this.registerDimension(entry.getDimension(), entry))
+            {
+                registered.add(entry);
+            }
         }
 
-        PacketHandler.INSTANCE.sendToAll(new MessageSyncDimensions(this.getRegisteredDimensions()));
+        this.syncRegistryChanges(registered, Collections.emptyList());
     }
 
     public void registerNonOverrideDimensions()
@@ -328,7 +523,7 @@ public class DimensionConfig
         }
     }
 
-    private boolean registerDimension(int dimension, DimensionConfigEntry entry)
+    private synchronized boolean registerDimension(int dimension, DimensionConfigEntry entry)
     {
         if (entry.getUnregister() || entry.hasDimensionTypeEntry() == false)
         {
@@ -341,6 +536,7 @@ public class DimensionConfig
             DimensionType type = entry.getDimensionTypeEntry().getOrRegisterDimensionType(dimension);
             DimensionManager.registerDimension(dimension, type);
             this.registeredDimensions.add(dimension);
+            this.invalidateRegistrySnapshot();
             return true;
         }
         else if (Configs.enableReplacingRegisteredDimensions && entry.getOverride())
@@ -351,6 +547,7 @@ public class DimensionConfig
                 DimensionManager.unregisterDimension(dimension);
                 DimensionManager.registerDimension(dimension, entry.getDimensionTypeEntry().getOrRegisterDimensionType(dimension));
                 this.registeredDimensions.add(dimension);
+                this.invalidateRegistrySnapshot();
                 return true;
             }
             else
@@ -379,7 +576,7 @@ public class DimensionConfig
 
             if (this.registerDimension(dimension, entry))
             {
-                PacketHandler.INSTANCE.sendToAll(new MessageSyncDimensions(this.getRegisteredDimensions()));
+                this.syncRegistryChanges(Collections.singletonList(entry), Collections.emptyList());
                 return entry.getDescription();
             }
             else
@@ -408,9 +605,13 @@ public class DimensionConfig
             CommandJED.throwNumber("dimension.already.registered", Integer.valueOf(dimension));
         }
 
-        this.dimensions.put(dimension, entry);
+        synchronized (this)
+        {
+            this.dimensions.put(dimension, entry);
+        }
+
         this.saveConfig();
-        PacketHandler.INSTANCE.sendToAll(new MessageSyncDimensions(this.getRegisteredDimensions()));
+        this.syncRegistryChanges(Collections.singletonList(entry), Collections.emptyList());
 
         return entry.getDescription();
     }
@@ -432,13 +633,80 @@ public class DimensionConfig
         return this.registerNewDimension(dimension, entry);
     }
 
-    public void unregisterCustomDimensions()
+    /**
+     * Registers new dimensions with the default DimensionType parameters for all
+     * the currently unregistered dimension IDs in the range <b>start</b> to <b>end</b> (inclusive).
+     * The range can contain at most MAX_REGISTER_RANGE_SIZE dimension IDs.
+     * @param start
+     * @param end
+     * @return the entries of the dimensions that were registered
+     */
+    public List<DimensionConfigEntry> registerNewDimensionRange(int start, int end)
+    {
+        if (start > end || (long) end - (long) start + 1L > MAX_REGISTER_RANGE_SIZE)
+        {
+            throw new IllegalArgumentException("Invalid dimension range " + start + " .. " + end +
+                    ", the range must contain between 1 and " + MAX_REGISTER_RANGE_SIZE + " dimension IDs");
+        }
+
+        List<DimensionConfigEntry> entries = new ArrayList<>();
+
+        // Use a long counter, so that the loop ends even if end == Integer.MAX_VALUE
+        for (long dim = start; dim <= end; dim++)
+        {
+            int dimension = (int) dim;
+
+            if (DimensionManager.isDimensionRegistered(dimension) == false)
+            {
+                DimensionConfigEntry entry = new DimensionConfigEntry(dimension);
+                entry.setDimensionTypeEntry(this.createDefaultDimensionTypeEntry(dimension));
+                entries.add(entry);
+            }
+        }
+
+        return this.registerNewDimensions(entries);
+    }
+
+    /**
+     * Registers all the given new dimensions, and adds them to the dimension config.
+     * Unlike calling registerNewDimension() for each dimension separately, this only
+     * saves the config once, and only sends the newly registered dimensions to the clients, in one message.
+     * The entries that can't be registered (for example because the dimension is already registered) are skipped.
+     * @param entries
+     * @return the entries of the dimensions that were registered
+     */
+    public List<DimensionConfigEntry> registerNewDimensions(Collection<DimensionConfigEntry> entries)
+    {
+        List<DimensionConfigEntry> registered = new ArrayList<>();
+
+        for (DimensionConfigEntry entry : entries)
+        {
+            synchronized (this)
+            {
+                if (this.registerDimension(entry.getDimension(), entry))
+                {
+                    this.dimensions.put(entry.getDimension(), entry);
+                    registered.add(entry);
+                }
+            }
+        }
+
+        if (registered.isEmpty() == false)
+        {
+            this.saveConfig();
+            this.syncRegistryChanges(registered, Collections.emptyList());
+        }
+
+        return registered;
+    }
+
+    public synchronized void unregisterCustomDimensions()
     {
-        Iterator<Integer> iter = this.registeredDimensions.iterator();
+        IntIterator iter = this.registeredDimensions.iterator();
 
         while (iter.hasNext())
         {
-            int dimension = iter.next();
+            int dimension = iter.nextInt();
 
             if (dimension != 0 && DimensionManager.isDimensionRegistered(dimension) && DimensionManager.getWorld(dimension) == null)
             {
@@ -447,6 +715,81 @@ public class DimensionConfig
                 iter.remove();
             }
         }
+
+        this.invalidateRegistrySnapshot();
+    }
+
+    private synchronized boolean unregisterCustomDimension(int dimension)
+    {
+        if (dimension != 0 && this.registeredDimensions.contains(dimension) &&
+            DimensionManager.isDimensionRegistered(dimension) && DimensionManager.getWorld(dimension) == null)
+        {
+            JustEnoughDimensions.logInfo("Unregistering dimension {}", dimension);
+            DimensionManager.unregisterDimension(dimension);
+            this.registeredDimensions.remove(dimension);
+            this.invalidateRegistrySnapshot();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Updates the registry state and syncs the change to the clients,
+     * after a dimension has been unregistered via the command.
+     * @param dimension
+     */
+    public void onDimensionUnregistered(int dimension)
+    {
+        synchronized (this)
+        {
+            this.registeredDimensions.remove(dimension);
+            this.registrySnapshot = null;
+        }
+
+        this.syncRegistryChanges(Collections.emptyList(), Collections.singletonList(dimension));
+    }
+
+    /**
+     * Returns the serialized list of all the registered dimensions, for syncing them to the clients.
+     * The snapshot is cached until the registered dimensions change.
+     * This gets called from the network threads, so all the changes to the registered dimensions
+     * and the dimension entries are done while holding the lock of this object.
+     */
+    public synchronized MessageSyncDimensions.RegistrySnapshot getRegistrySnapshot()
+    {
+        if (this.registrySnapshot == null)
+        {
+            this.registrySnapshot = new MessageSyncDimensions.RegistrySnapshot(this.registryGeneration, this.getRegisteredDimensions());
+        }
+
+        return this.registrySnapshot;
+    }
+
+    private synchronized void invalidateRegistrySnapshot()
+    {
+        this.registrySnapshot = null;
+    }
+
+    /**
+     * Moves the registry to the next generation, and sends the given changes to all the clients as a delta.
+     */
+    private void syncRegistryChanges(Collection<DimensionConfigEntry> registered, Collection<Integer> unregistered)
+    {
+        if (registered.isEmpty() && unregistered.isEmpty())
+        {
+            return;
+        }
+
+        int generation;
+
+        synchronized (this)
+        {
+            generation = ++this.registryGeneration;
+            this.registrySnapshot = null;
+        }
+
+        PacketHandler.INSTANCE.sendToAll(new MessageSyncDimensions(generation, registered, unregistered));
     }
 
     public void removeDimensionAndSaveConfig(int dimension)
@@ -455,9 +798,11 @@ public class DimensionConfig
         this.saveConfig();
     }
 
-    private void removeDimension(int dimension)
+    private synchronized void removeDimension(int dimension)
     {
+        this.invalidateRegistrySnapshot();
         this.dimensions.remove(dimension);
+        this.deferredEntries.remove(dimension);
         this.customWorldInfo.remove(dimension);
         this.onetimeWorldInfo.remove(dimension);
         JEDWorldProperties.removePropertiesFrom(dimension);
@@ -473,7 +818,11 @@ public class DimensionConfig
 
         for (DimensionConfigEntry dimEntry : dims)
         {
-            array.add(dimEntry.toJson());
+            // The entries from the dimensions.d directory stay in their own files
+            if (dimEntry.getConfigSource() == null)
+            {
+                array.add(dimEntry.toJson());
+            }
         }
 
         JsonObject objVersion = new JsonObject();
@@ -488,6 +837,7 @@ public class DimensionConfig
             FileWriter writer = new FileWriter(this.currentDimensionConfigFile);
             writer.write(JEDJsonUtils.GSON_PRETTY.toJson(root));
             writer.close();
+            ConfigFileWatcher.onFileWritten(this.currentDimensionConfigFile);
         }
         catch (IOException e)
         {
@@ -516,12 +866,14 @@ public class DimensionConfig
         return null;
     }
 
-    private void parseDimensionConfig(JsonElement rootElement) throws IllegalStateException
+    private Map<Integer, DimensionConfigEntry> parseDimensionConfig(JsonElement rootElement) throws IllegalStateException
     {
+        Map<Integer, DimensionConfigEntry> entries = new HashMap<>();
+
         if (rootElement == null || rootElement.isJsonObject() == false)
         {
             JustEnoughDimensions.logger.warn("The dimension config is missing the root object!");
-            return;
+            return entries;
         }
 
         JsonObject root = rootElement.getAsJsonObject();
@@ -536,7 +888,6 @@ public class DimensionConfig
         if (root.has("dimensions") && root.get("dimensions").isJsonArray())
         {
             JsonArray array = rootElement.getAsJsonObject().get("dimensions").getAsJsonArray();
-            int count = 0;
 
             for (JsonElement el : array)
             {
@@ -546,30 +897,48 @@ public class DimensionConfig
 
                     if (object.has("dim") && object.get("dim").isJsonPrimitive())
                     {
-                        this.parseDimensionConfigEntry(object.get("dim").getAsInt(), object);
-                        count++;
+                        int dimension = object.get("dim").getAsInt();
+                        entries.put(dimension, DimensionConfigEntry.fromJson(dimension, object));
                     }
                 }
             }
 
-            JustEnoughDimensions.logInfo("Read {} dimension entries from the config", count);
+            JustEnoughDimensions.logInfo("Read {} dimension entries from the config", entries.size());
         }
+
+        return entries;
     }
 
     private void parseDimensionConfigEntry(int dimension, final JsonObject object)
     {
-        DimensionConfigEntry configEntry = DimensionConfigEntry.fromJson(dimension, object);
+        this.applyDimensionConfigEntry(DimensionConfigEntry.fromJson(dimension, object));
+    }
+
+    private synchronized void applyDimensionConfigEntry(DimensionConfigEntry configEntry)
+    {
+        final int dimension = configEntry.getDimension();
+        this.invalidateRegistrySnapshot();
+
+        // The worldinfo and jed values of the entries from the dimensions.d directory
+        // are only read and applied when the dimension is about to load
+        if (configEntry.hasDeferredPayloads())
+        {
+            this.deferredEntries.put(dimension, configEntry);
+            this.dimensions.put(dimension, configEntry);
+            return;
+        }
 
         if (configEntry.getWorldInfoJson() != null)
         {
-            this.customWorldInfo.put(dimension, this.parseAndGetCustomWorldInfoValues(dimension, configEntry.getWorldInfoJson()));
+            this.customWorldInfo.put(dimension, this.compileWorldInfoPatch(configEntry.getWorldInfoJson()));
         }
 
         if (configEntry.getOneTimeWorldInfoJson() != null)
         {
-            this.onetimeWorldInfo.put(dimension, this.parseAndGetCustomWorldInfoValues(dimension, configEntry.getOneTimeWorldInfoJson()));
+            this.onetimeWorldInfo.put(dimension, this.compileWorldInfoPatch(configEntry.getOneTimeWorldInfoJson()));
         }
 
+        JEDWorldProperties.createAndSetPropertiesForDimension(dimension, configEntry.getJedTag());
         this.dimensions.put(dimension, configEntry);
     }
 
@@ -805,7 +1174,7 @@ public class DimensionConfig
         return null;
     }
 
-    private NBTTagCompound parseAndGetCustomWorldInfoValues(int dimension, JsonObject object) throws IllegalStateException
+    private WorldInfoPatch compileWorldInfoPatch(JsonObject object) throws IllegalStateException
     {
         NBTTagCompound nbt = new NBTTagCompound();
 
@@ -821,7 +1190,7 @@ public class DimensionConfig
             }
         }
 
-        return nbt;
+        return new WorldInfoPatch(nbt);
     }
 
     private boolean isJEDProperty(String key)
@@ -985,6 +1354,28 @@ public class DimensionConfig
         }
     }
 
+    public static class ReloadResult
+    {
+        private final List<Integer> added = new ArrayList<>();
+        private final List<Integer> removed = new ArrayList<>();
+        private final List<Integer> changed = new ArrayList<>();
+
+        public List<Integer> getAdded()
+        {
+            return this.added;
+        }
+
+        public List<Integer> getRemoved()
+        {
+            return this.removed;
+        }
+
+        public List<Integer> getChanged()
+        {
+            return this.changed;
+        }
+    }
+
     public enum WorldInfoType
     {
         REGULAR ("worldinfo"),
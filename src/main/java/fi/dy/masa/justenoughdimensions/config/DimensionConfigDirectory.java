@@ -0,0 +1,350 @@
+package fi.dy.masa.justenoughdimensions.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+
+/**
+ * Reads the dimension config entries from the 'dimensions.d' directory.
+ * Each .json file in the directory can contain either a single dimension entry object,
+ * or an object with a "dimensions" array, in the same format as the main 'dimensions.json'.
+ * The files are only indexed when the config is read, which means that the registration
+ * related values are read, but the heavy "worldinfo", "worldinfo_onetime", "jed" and
+ * "spawn_structure" objects are skipped, and read from the file only when they are first needed.
+ * Each entry also gets a hash of its own JSON, including the skipped values,
+ * so that the config reload can tell which entries of a file have actually changed.
+ */
+public class DimensionConfigDirectory
+{
+    public static final String DIRECTORY_NAME = "dimensions.d";
+    private static final Set<String> DEFERRED_KEYS = ImmutableSet.of("worldinfo", "worldinfo_onetime", "jed", "spawn_structure");
+
+    public static File getDirectoryFor(File dimensionConfigFile)
+    {
+        return new File(dimensionConfigFile.getParentFile(), DIRECTORY_NAME);
+    }
+
+    /**
+     * @return the .json files in the given directory, sorted by name
+     */
+    public static List<File> getConfigFiles(File dir)
+    {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".json"));
+
+        if (files == null)
+        {
+            return Collections.emptyList();
+        }
+
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    /**
+     * Indexes all the dimension config files in the given directory.
+     * If the same dimension is in multiple files, then the last file (by name) wins.
+     */
+    public static Map<Integer, DimensionConfigEntry> readDirectory(File dir)
+    {
+        Map<Integer, DimensionConfigEntry> entries = new HashMap<>();
+
+        if (dir.isDirectory() == false)
+        {
+            return entries;
+        }
+
+        for (File file : getConfigFiles(dir))
+        {
+            try
+            {
+                byte[] data = Files.toByteArray(file);
+                HashCode hash = Hashing.sha1().hashBytes(data);
+                JsonReader reader = new JsonReader(new StringReader(new String(data, StandardCharsets.UTF_8)));
+                reader.setLenient(true);
+
+                for (DimensionConfigEntry entry : readFile(reader, file, hash))
+                {
+                    if (entries.put(entry.getDimension(), entry) != null)
+                    {
+                        JustEnoughDimensions.logger.warn("Dimension {} is defined in multiple files in '{}', using the one in '{}'",
+                                entry.getDimension(), dir.getAbsolutePath(), file.getName());
+                    }
+                }
+            }
+            catch (Exception e)
+            {
+                JustEnoughDimensions.logger.warn("Failed to read the dimension config file '{}'", file.getAbsolutePath(), e);
+            }
+        }
+
+        JustEnoughDimensions.logInfo("Indexed {} dimension entries from the directory '{}'", entries.size(), dir.getAbsolutePath());
+
+        return entries;
+    }
+
+    private static List<DimensionConfigEntry> readFile(JsonReader reader, File file, HashCode hash) throws IOException
+    {
+        List<DimensionConfigEntry> list = new ArrayList<>();
+
+        if (reader.peek() != JsonToken.BEGIN_OBJECT)
+        {
+            JustEnoughDimensions.logger.warn("The dimension config file '{}' is missing the root object", file.getAbsolutePath());
+            return list;
+        }
+
+        // The root object is either a group file with a "dimensions" array, or a single dimension entry
+        JsonObject singleEntry = new JsonObject();
+        Set<String> deferred = new HashSet<>();
+        Hasher singleEntryHasher = Hashing.sha1().newHasher();
+        reader.beginObject();
+
+        while (reader.hasNext())
+        {
+            String name = reader.nextName();
+
+            if (name.equals("dimensions") && reader.peek() == JsonToken.BEGIN_ARRAY)
+            {
+                reader.beginArray();
+
+                while (reader.hasNext())
+                {
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT)
+                    {
+                        Set<String> deferredKeys = new HashSet<>();
+                        Hasher entryHasher = Hashing.sha1().newHasher();
+                        JsonObject obj = readIndexedObject(reader, deferredKeys, entryHasher);
+                        addEntry(list, obj, deferredKeys, file, hash, entryHasher.hash());
+                    }
+                    else
+                    {
+                        reader.skipValue();
+                    }
+                }
+
+                reader.endArray();
+            }
+            else
+            {
+                readIndexedValue(reader, name, singleEntry, deferred, singleEntryHasher);
+            }
+        }
+
+        reader.endObject();
+
+        if (singleEntry.has("dim"))
+        {
+            addEntry(list, singleEntry, deferred, file, hash, singleEntryHasher.hash());
+        }
+
+        return list;
+    }
+
+    private static void addEntry(List<DimensionConfigEntry> list, JsonObject obj, Set<String> deferredKeys,
+            File file, HashCode fileHash, HashCode entryHash)
+    {
+        if (obj.has("dim") && obj.get("dim").isJsonPrimitive())
+        {
+            int dimension = obj.get("dim").getAsInt();
+            DimensionConfigEntry entry = DimensionConfigEntry.fromJson(dimension, obj);
+            entry.setDeferredConfigSource(file, fileHash, entryHash, deferredKeys);
+            list.add(entry);
+        }
+    }
+
+    private static JsonObject readIndexedObject(JsonReader reader, Set<String> deferredKeys, Hasher hasher) throws IOException
+    {
+        JsonObject obj = new JsonObject();
+        reader.beginObject();
+
+        while (reader.hasNext())
+        {
+            readIndexedValue(reader, reader.nextName(), obj, deferredKeys, hasher);
+        }
+
+        reader.endObject();
+
+        return obj;
+    }
+
+    private static void readIndexedValue(JsonReader reader, String name, JsonObject obj, Set<String> deferredKeys, Hasher hasher) throws IOException
+    {
+        hashString(name, hasher);
+
+        if (DEFERRED_KEYS.contains(name))
+        {
+            // The deferred values are only hashed, without building the JSON objects
+            hashValue(reader, hasher);
+            deferredKeys.add(name);
+        }
+        else
+        {
+            JsonElement element = new JsonParser().parse(reader);
+            hashString(element.toString(), hasher);
+            obj.add(name, element);
+        }
+    }
+
+    private static void hashValue(JsonReader reader, Hasher hasher) throws IOException
+    {
+        switch (reader.peek())
+        {
+            case BEGIN_ARRAY:
+                hasher.putChar('[');
+                reader.beginArray();
+
+                while (reader.hasNext())
+                {
+                    hashValue(reader, hasher);
+                }
+
+                reader.endArray();
+                hasher.putChar(']');
+                break;
+
+            case BEGIN_OBJECT:
+                hasher.putChar('{');
+                reader.beginObject();
+
+                while (reader.hasNext())
+                {
+                    hashString(reader.nextName(), hasher);
+                    hashValue(reader, hasher);
+                }
+
+                reader.endObject();
+                hasher.putChar('}');
+                break;
+
+            case STRING:    hasher.putChar('s'); hashString(reader.nextString(), hasher); break;
+            case NUMBER:    hasher.putChar('n'); hashString(reader.nextString(), hasher); break;
+            case BOOLEAN:   hasher.putChar('b').putBoolean(reader.nextBoolean()); break;
+            case NULL:      hasher.putChar('0'); reader.nextNull(); break;
+            default:        reader.skipValue();
+        }
+    }
+
+    private static void hashString(String str, Hasher hasher)
+    {
+        // The length prefix keeps adjacent strings from running together
+        hasher.putInt(str.length()).putString(str, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fully reads the config entry of the given indexed entry's dimension from its source file, without deferring any values.
+     * This is used when the file has changed after the entry was indexed.
+     * The returned entry keeps the index-time hashes of the given entry, so that the next config reload
+     * still sees the entry as changed, and applies its new registration related values.
+     * @param indexedEntry
+     * @return the entry, or null if the file couldn't be read or it doesn't have an entry for the dimension
+     */
+    @Nullable
+    public static DimensionConfigEntry readFullEntry(DimensionConfigEntry indexedEntry)
+    {
+        File file = indexedEntry.getConfigSource();
+        int dimension = indexedEntry.getDimension();
+
+        if (file == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            byte[] data = Files.toByteArray(file);
+            JsonObject obj = readEntryObject(data, file, dimension);
+
+            if (obj != null)
+            {
+                DimensionConfigEntry entry = DimensionConfigEntry.fromJson(dimension, obj);
+                entry.setDeferredConfigSource(file, indexedEntry.getConfigSourceHash(), indexedEntry.getConfigEntryHash(), Collections.emptySet());
+                return entry;
+            }
+        }
+        catch (IOException e)
+        {
+            JustEnoughDimensions.logger.warn("Failed to read the dimension config file '{}'", file.getAbsolutePath(), e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Fully reads the config entry object of the given dimension from the given file contents.
+     * @param data the contents of the file
+     * @param file the file the data was read from, for logging purposes
+     * @param dimension
+     * @return the entry object, or null if it was not found
+     */
+    @Nullable
+    public static JsonObject readEntryObject(byte[] data, File file, int dimension)
+    {
+        JsonElement rootElement;
+
+        try
+        {
+            JsonReader reader = new JsonReader(new StringReader(new String(data, StandardCharsets.UTF_8)));
+            reader.setLenient(true);
+            rootElement = new JsonParser().parse(reader);
+        }
+        catch (Exception e)
+        {
+            JustEnoughDimensions.logger.warn("Failed to parse the dimension config file '{}'", file.getAbsolutePath(), e);
+            return null;
+        }
+
+        if (rootElement == null || rootElement.isJsonObject() == false)
+        {
+            return null;
+        }
+
+        JsonObject root = rootElement.getAsJsonObject();
+
+        if (root.has("dimensions") && root.get("dimensions").isJsonArray())
+        {
+            JsonArray array = root.get("dimensions").getAsJsonArray();
+
+            for (JsonElement el : array)
+            {
+                if (isEntryFor(el, dimension))
+                {
+                    return el.getAsJsonObject();
+                }
+            }
+        }
+
+        return isEntryFor(root, dimension) ? root : null;
+    }
+
+    private static boolean isEntryFor(JsonElement el, int dimension)
+    {
+        if (el.isJsonObject())
+        {
+            JsonObject obj = el.getAsJsonObject();
+            return obj.has("dim") && obj.get("dim").isJsonPrimitive() && obj.get("dim").getAsInt() == dimension;
+        }
+
+        return false;
+    }
+}
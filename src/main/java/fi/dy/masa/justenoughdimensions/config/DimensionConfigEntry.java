@@ -1,10 +1,16 @@
 package fi.dy.masa.justenoughdimensions.config;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 import com.google.gson.JsonObject;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 import fi.dy.masa.justenoughdimensions.util.JEDJsonUtils;
-import fi.dy.masa.justenoughdimensions.world.JEDWorldProperties;
 import io.netty.buffer.ByteBuf;
 
 public class DimensionConfigEntry implements Comparable<DimensionConfigEntry>
@@ -26,6 +32,10 @@ public class DimensionConfigEntry implements Comparable<DimensionConfigEntry>
     @Nullable private JsonObject oneTimeWorldInfoJson;
     @Nullable private JsonObject spawnStructureJson;
     @Nullable private DimensionTypeEntry dimensionTypeEntry;
+    @Nullable private File configSource; // if != null, then this entry was read from a file in the dimensions.d directory
+    @Nullable private HashCode configSourceHash;
+    @Nullable private HashCode configEntryHash;
+    @Nullable private Set<String> deferredKeys; // if != null, then these payloads haven't been read from the configSource file yet
 
     public DimensionConfigEntry(int id)
     {
@@ -126,21 +136,174 @@ public class DimensionConfigEntry implements Comparable<DimensionConfigEntry>
     @Nullable
     public JsonObject getWorldInfoJson()
     {
+        this.loadDeferredPayloads();
         return this.worldInfoJson;
     }
 
     @Nullable
     public JsonObject getOneTimeWorldInfoJson()
     {
+        this.loadDeferredPayloads();
         return this.oneTimeWorldInfoJson;
     }
 
     @Nullable
     public JsonObject getSpawnStructureJson()
     {
+        this.loadDeferredPayloads();
         return this.spawnStructureJson;
     }
 
+    @Nullable
+    public JsonObject getJedTag()
+    {
+        this.loadDeferredPayloads();
+        return this.jedTag;
+    }
+
+    @Nullable
+    public File getConfigSource()
+    {
+        return this.configSource;
+    }
+
+    /**
+     * @return the hash of the config source file at the time this entry was indexed
+     */
+    @Nullable
+    public HashCode getConfigSourceHash()
+    {
+        return this.configSourceHash;
+    }
+
+    /**
+     * @return the hash of this entry's own JSON in the config source file, at the time this entry was indexed
+     */
+    @Nullable
+    public HashCode getConfigEntryHash()
+    {
+        return this.configEntryHash;
+    }
+
+    /**
+     * Marks this entry as having been read from the given file in the dimensions.d directory,
+     * with the given (heavy) payload keys not having been read yet. They will be read
+     * from the file when they are first needed.
+     * @param file
+     * @param fileHash the hash of the file contents at the time the entry was indexed
+     * @param entryHash the hash of just this entry's JSON at the time the entry was indexed
+     * @param deferredKeys
+     */
+    public void setDeferredConfigSource(File file, HashCode fileHash, HashCode entryHash, Set<String> deferredKeys)
+    {
+        this.configSource = file;
+        this.configSourceHash = fileHash;
+        this.configEntryHash = entryHash;
+        this.deferredKeys = deferredKeys.isEmpty() == false ? deferredKeys : null;
+    }
+
+    public boolean hasDeferredPayloads()
+    {
+        return this.deferredKeys != null;
+    }
+
+    /**
+     * @return true if this entry has a worldinfo or worldinfo_onetime object,
+     *         without having to read any deferred payloads for it
+     */
+    public boolean hasWorldInfoValues()
+    {
+        if (this.deferredKeys != null)
+        {
+            return this.deferredKeys.contains("worldinfo") || this.deferredKeys.contains("worldinfo_onetime");
+        }
+
+        return this.worldInfoJson != null || this.oneTimeWorldInfoJson != null;
+    }
+
+    /**
+     * Reads the deferred payloads of this entry from its config source file, if they haven't been read yet.
+     * The payloads are only read if the file is still the same as when this entry was indexed,
+     * otherwise they would not match the rest of the entry.
+     * @return false if the payloads could not be read, either because the file has changed, or it can't be read.
+     *         In that case they are left unread, and the entry should be fully re-read from the file instead.
+     */
+    public synchronized boolean loadDeferredPayloads()
+    {
+        if (this.deferredKeys == null || this.configSource == null)
+        {
+            return true;
+        }
+
+        byte[] data;
+
+        try
+        {
+            data = Files.toByteArray(this.configSource);
+        }
+        catch (IOException e)
+        {
+            JustEnoughDimensions.logger.warn("Failed to read the deferred config values of dimension {} from file '{}'",
+                    this.dimension, this.configSource.getAbsolutePath(), e);
+            return false;
+        }
+
+        if (Hashing.sha1().hashBytes(data).equals(this.configSourceHash) == false)
+        {
+            JustEnoughDimensions.logInfo("The config file '{}' of dimension {} has changed since it was indexed",
+                    this.configSource.getAbsolutePath(), this.dimension);
+            return false;
+        }
+
+        JsonObject obj = DimensionConfigDirectory.readEntryObject(data, this.configSource, this.dimension);
+
+        if (obj == null)
+        {
+            return false;
+        }
+
+        this.deferredKeys = null;
+        this.readPayloads(obj);
+
+        return true;
+    }
+
+    private void readPayloads(JsonObject obj)
+    {
+        this.worldInfoJson         = JEDJsonUtils.getNestedObject(obj, "worldinfo", false);
+        this.oneTimeWorldInfoJson  = JEDJsonUtils.getNestedObject(obj, "worldinfo_onetime", false);
+        this.spawnStructureJson    = JEDJsonUtils.getNestedObject(obj, "spawn_structure", false);
+
+        if (obj.has("jed") && obj.get("jed").isJsonObject())
+        {
+            JsonObject objJed = obj.get("jed").getAsJsonObject();
+
+            if (objJed.size() > 0)
+            {
+                this.jedTag = objJed;
+            }
+        }
+    }
+
+    /**
+     * Checks if this entry has exactly the same configured values as the other entry.
+     * @param other
+     * @return true if the entries would be written out identically to the config
+     */
+    public boolean isSameConfigAs(DimensionConfigEntry other)
+    {
+        // Entries from the dimensions.d directory are compared by the hash of their own JSON in the source file,
+        // so that their deferred payloads don't need to be read just for the comparison,
+        // and so that editing one entry in a file doesn't mark the other entries in it as changed
+        if (this.configSource != null || other.configSource != null)
+        {
+            return this.configSource != null && this.configSource.equals(other.configSource) &&
+                   this.configEntryHash != null && this.configEntryHash.equals(other.configEntryHash);
+        }
+
+        return this.toJson().equals(other.toJson());
+    }
+
     public void writeToByteBuf(ByteBuf buf)
     {
         buf.writeInt(this.dimension);
@@ -195,20 +358,7 @@ public class DimensionConfigEntry implements Comparable<DimensionConfigEntry>
             entry.setDimensionTypeEntry(DimensionTypeEntry.fromJson(dimension, objDimType));
         }
 
-        entry.worldInfoJson         = JEDJsonUtils.getNestedObject(obj, "worldinfo", false);
-        entry.oneTimeWorldInfoJson  = JEDJsonUtils.getNestedObject(obj, "worldinfo_onetime", false);
-        entry.spawnStructureJson    = JEDJsonUtils.getNestedObject(obj, "spawn_structure", false);
-
-        if (obj.has("jed") && obj.get("jed").isJsonObject())
-        {
-            JsonObject objJed = obj.get("jed").getAsJsonObject();
-
-            if (objJed.size() > 0)
-            {
-                entry.jedTag = objJed;
-                JEDWorldProperties.createAndSetPropertiesForDimension(dimension, objJed);
-            }
-        }
+        entry.readPayloads(obj);
 
         return entry;
     }
@@ -278,6 +428,8 @@ public class DimensionConfigEntry implements Comparable<DimensionConfigEntry>
             jsonEntry.add("dimensiontype", this.dimensionTypeEntry.toJson());
         }
 
+        this.loadDeferredPayloads();
+
         if (this.jedTag != null)
         {
             jsonEntry.add("jed",                JEDJsonUtils.deepCopy(this.jedTag));
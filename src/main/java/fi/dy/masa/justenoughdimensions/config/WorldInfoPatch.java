@@ -0,0 +1,78 @@
+package fi.dy.masa.justenoughdimensions.config;
+
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.common.util.Constants;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+
+/**
+ * An immutable set of WorldInfo values from one "worldinfo" or "worldinfo_onetime"
+ * object in the dimension config. The JSON values are converted to NBT once
+ * when the config is read, and the patch then just gets applied to the WorldInfo tags
+ * every time the dimension loads.
+ */
+public class WorldInfoPatch
+{
+    private final String[] keys;
+    private final NBTBase[] values;
+    private final boolean randomSeed;
+
+    /**
+     * Creates a patch from the already converted values in the given compound.
+     * A String type "RandomSeed" value means that a new random seed is used every time the patch is applied.
+     * @param values
+     */
+    public WorldInfoPatch(NBTTagCompound values)
+    {
+        this.randomSeed = values.hasKey("RandomSeed", Constants.NBT.TAG_STRING);
+
+        int count = values.getSize() - (this.randomSeed ? 1 : 0);
+        this.keys = new String[count];
+        this.values = new NBTBase[count];
+        int i = 0;
+
+        for (String key : values.getKeySet())
+        {
+            if (this.randomSeed == false || key.equals("RandomSeed") == false)
+            {
+                this.keys[i] = key;
+                this.values[i] = values.getTag(key).copy();
+                i++;
+            }
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return this.keys.length == 0 && this.randomSeed == false;
+    }
+
+    /**
+     * Applies the values to the given tag, in the same way as NBTTagCompound#merge(),
+     * ie. nested compounds (like the GameRules) get merged, and all other values get replaced.
+     * @param tag
+     */
+    public void applyTo(NBTTagCompound tag)
+    {
+        for (int i = 0; i < this.keys.length; i++)
+        {
+            String key = this.keys[i];
+            NBTBase value = this.values[i];
+
+            if (value.getId() == Constants.NBT.TAG_COMPOUND && tag.hasKey(key, Constants.NBT.TAG_COMPOUND))
+            {
+                tag.getCompoundTag(key).merge((NBTTagCompound) value);
+            }
+            else
+            {
+                tag.setTag(key, value.copy());
+            }
+        }
+
+        // Support randomized seeds that get randomized every time the values are applied
+        if (this.randomSeed)
+        {
+            tag.setLong("RandomSeed", JustEnoughDimensions.RAND.nextLong());
+        }
+    }
+}
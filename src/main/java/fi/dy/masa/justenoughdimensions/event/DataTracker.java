@@ -14,12 +14,12 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.GameType;
-import net.minecraft.world.storage.ThreadedFileIOBase;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.util.Constants;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 import fi.dy.masa.justenoughdimensions.config.Configs;
 import fi.dy.masa.justenoughdimensions.util.EntityUtils;
+import fi.dy.masa.justenoughdimensions.util.JEDFileIO;
 import fi.dy.masa.justenoughdimensions.util.PlayerInventoryStorage;
 import fi.dy.masa.justenoughdimensions.util.world.WorldFileUtils;
 import fi.dy.masa.justenoughdimensions.world.JEDWorldProperties;
@@ -293,11 +293,11 @@ public class DataTracker
 
                 final NBTTagCompound nbt = this.writeToNBT(new NBTTagCompound());
 
-                ThreadedFileIOBase.getThreadedIOInstance().queueIO(() ->
-                {
-                    File fileTmp = new File(jedDataDir, "data_tracker.dat.tmp");
-                    File fileReal = new File(jedDataDir, "data_tracker.dat");
+                final File fileTmp = new File(jedDataDir, "data_tracker.dat.tmp");
+                final File fileReal = new File(jedDataDir, "data_tracker.dat");
 
+                JEDFileIO.INSTANCE.queueWrite(JEDFileIO.Priority.TRACKER_DATA, fileReal, () ->
+                {
                     try
                     {
                         FileOutputStream os = new FileOutputStream(fileTmp);
@@ -309,7 +309,7 @@ public class DataTracker
                             fileReal.delete();
                         }
 
-                        fileTmp.renameTo(fileReal);
+                        return fileTmp.renameTo(fileReal);
                     }
                     catch (Exception e)
                     {
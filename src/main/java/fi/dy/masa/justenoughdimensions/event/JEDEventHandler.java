@@ -18,6 +18,7 @@ import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.network.FMLEmbeddedChannel;
 import net.minecraftforge.fml.common.network.FMLNetworkEvent;
 import net.minecraftforge.fml.common.network.FMLOutboundHandler;
@@ -28,6 +29,7 @@ import fi.dy.masa.justenoughdimensions.config.Configs;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfig;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfigEntry;
 import fi.dy.masa.justenoughdimensions.network.DimensionSyncPacket;
+import fi.dy.masa.justenoughdimensions.network.WorldPropertiesSyncCache;
 import fi.dy.masa.justenoughdimensions.util.world.WorldBorderUtils;
 import fi.dy.masa.justenoughdimensions.util.world.WorldFileUtils;
 import fi.dy.masa.justenoughdimensions.util.world.WorldInfoUtils;
@@ -57,7 +59,7 @@ public class JEDEventHandler
     {
         JustEnoughDimensions.logInfo("FMLNetworkEvent.ServerConnectionFromClientEvent: Syncing dimension data to client");
         DimensionSyncPacket packet = new DimensionSyncPacket();
-        packet.addDimensionData(DimensionConfig.instance().getRegisteredDimensions());
+        packet.setRegistrySnapshot(DimensionConfig.instance().getRegistrySnapshot());
 
         FMLEmbeddedChannel channel = JustEnoughDimensions.channels.get(Side.SERVER);
         channel.attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.DISPATCHER);
@@ -75,7 +77,9 @@ public class JEDEventHandler
 
         if (world.isRemote == false)
         {
+            DimensionConfig.instance().loadDeferredDimensionConfig(dimension);
             overrideWorldInfoAndBiomeProvider(world);
+            WorldUtils.setPristineChunkLoaderIfApplicable(world);
             WorldFileUtils.createTemporaryWorldMarkerIfApplicable(world);
 
             // For the overworld the spawn point search happens from WorldEvent.CreateSpawnPosition
@@ -105,7 +109,13 @@ public class JEDEventHandler
         if (event.getWorld().isRemote == false)
         {
             JustEnoughDimensions.logInfo("WorldEvent.Unload - DIM: {}", event.getWorld().provider.getDimension());
+            WorldFileUtils.saveCustomWorldInfoOnUnload(event.getWorld());
             WorldUtils.removeTemporaryWorldIfApplicable(event.getWorld());
+            WorldFileUtils.removeFileState(event.getWorld().provider.getDimension());
+        }
+        else
+        {
+            JustEnoughDimensions.proxy.onClientWorldUnload(event.getWorld());
         }
     }
 
@@ -178,6 +188,16 @@ public class JEDEventHandler
         }
     }
 
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        // Write out all the jed_level.dat files from this tick's save cycle in one go
+        if (event.phase == TickEvent.Phase.END)
+        {
+            WorldFileUtils.flushPendingWorldInfoSaves();
+        }
+    }
+
     @SubscribeEvent
     public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event)
     {
@@ -186,6 +206,12 @@ public class JEDEventHandler
         DataTracker.getInstance().playerLoginOrRespawn(event.player);
     }
 
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event)
+    {
+        WorldPropertiesSyncCache.removePlayer(event.player);
+    }
+
     @SubscribeEvent
     public void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event)
     {
@@ -228,8 +254,8 @@ public class JEDEventHandler
 
     private void syncAndSetPlayerData(EntityPlayer player)
     {
-        WorldBorderUtils.sendWorldBorder(player);
-        WorldUtils.syncWorldProviderProperties(player);
+        // The world border is sent in the same message as the world properties
+        WorldUtils.syncWorldProviderProperties(player, true);
         WorldUtils.setupRespawnDimension(player);
     }
 
@@ -1,5 +1,6 @@
 package fi.dy.masa.justenoughdimensions.event;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -18,9 +19,14 @@ import fi.dy.masa.justenoughdimensions.util.JEDStringUtils;
 
 public class JEDEventHandlerClient
 {
-    private static final Map<ResourceLocation, Integer> FOLIAGE_COLORS = new HashMap<ResourceLocation, Integer>();
-    private static final Map<ResourceLocation, Integer> GRASS_COLORS = new HashMap<ResourceLocation, Integer>();
-    private static final Map<ResourceLocation, Integer> WATER_COLORS = new HashMap<ResourceLocation, Integer>();
+    /** The value in the color tables for biomes that don't have a color override */
+    private static final int NO_COLOR = -1;
+    private static final int BIOME_ID_COUNT = 256;
+    // The color tables are indexed by the biome ID. They are replaced instead of modified,
+    // because the color events get fired from the chunk render worker threads.
+    private static volatile int[] foliageColors = createColorTable();
+    private static volatile int[] grassColors = createColorTable();
+    private static volatile int[] waterColors = createColorTable();
     private static boolean hasFoliageColors;
     private static boolean hasGrassColors;
     private static boolean hasWaterColors;
@@ -30,7 +36,7 @@ public class JEDEventHandlerClient
     {
         if (hasFoliageColors)
         {
-            event.setNewColor(getColor(ColorType.FOLIAGE, event.getBiome(), event.getOriginalColor()));
+            event.setNewColor(getColor(foliageColors, event.getBiome(), event.getOriginalColor()));
         }
     }
 
@@ -39,7 +45,7 @@ public class JEDEventHandlerClient
     {
         if (hasGrassColors)
         {
-            event.setNewColor(getColor(ColorType.GRASS, event.getBiome(), event.getOriginalColor()));
+            event.setNewColor(getColor(grassColors, event.getBiome(), event.getOriginalColor()));
         }
     }
 
@@ -48,27 +54,58 @@ public class JEDEventHandlerClient
     {
         if (hasWaterColors)
         {
-            event.setNewColor(getColor(ColorType.WATER, event.getBiome(), event.getOriginalColor()));
+            event.setNewColor(getColor(waterColors, event.getBiome(), event.getOriginalColor()));
         }
     }
 
+    /**
+     * Compiles the given biome colors into the color table of the given type.
+     * This should be called once when the colors are synced, not during rendering.
+     */
     public static void setColors(ColorType type, @Nullable Map<ResourceLocation, Integer> colorsIn)
     {
-        Map<ResourceLocation, Integer> colors = getColorMap(type);
-        colors.clear();
+        int[] colors = createColorTable();
+        boolean hasColors = false;
 
         if (colorsIn != null)
         {
-            colors.putAll(colorsIn);
+            for (Map.Entry<ResourceLocation, Integer> entry : colorsIn.entrySet())
+            {
+                Biome biome = Biome.REGISTRY.getObject(entry.getKey());
+                int id = biome != null ? Biome.getIdForBiome(biome) : -1;
+
+                if (id >= 0 && id < colors.length)
+                {
+                    // Only the RGB bits are used by the biome colors, the alpha bits would clash with NO_COLOR
+                    colors[id] = entry.getValue().intValue() & 0xFFFFFF;
+                    hasColors = true;
+                }
+            }
+        }
+
+        switch (type)
+        {
+            case FOLIAGE:   foliageColors = colors; break;
+            case GRASS:     grassColors = colors; break;
+            case WATER:     waterColors = colors; break;
+            default:
         }
 
-        setFlag(type, colors.isEmpty() == false);
+        setFlag(type, hasColors);
     }
 
-    private static int getColor(ColorType type, Biome biome, int defaultColor)
+    private static int getColor(int[] colors, Biome biome, int defaultColor)
     {
-        Integer color = getColorMap(type).get(biome.getRegistryName());
-        return color != null ? color.intValue() : defaultColor;
+        int id = Biome.getIdForBiome(biome);
+        int color = id >= 0 && id < colors.length ? colors[id] : NO_COLOR;
+        return color != NO_COLOR ? color : defaultColor;
+    }
+
+    private static int[] createColorTable()
+    {
+        int[] colors = new int[BIOME_ID_COUNT];
+        Arrays.fill(colors, NO_COLOR);
+        return colors;
     }
 
     @Nullable
@@ -130,17 +167,6 @@ public class JEDEventHandlerClient
         }
     }
 
-    private static Map<ResourceLocation, Integer> getColorMap(ColorType type)
-    {
-        switch (type)
-        {
-            case FOLIAGE:   return FOLIAGE_COLORS;
-            case GRASS:     return GRASS_COLORS;
-            case WATER:     return WATER_COLORS;
-            default:        return FOLIAGE_COLORS;
-        }
-    }
-
     private static void setFlag(ColorType type, boolean value)
     {
         switch (type)
@@ -1,21 +1,162 @@
 package fi.dy.masa.justenoughdimensions.event;
 
+import javax.annotation.Nullable;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiControls;
+import net.minecraft.client.gui.GuiCustomizeSkin;
+import net.minecraft.client.gui.GuiIngameMenu;
+import net.minecraft.client.gui.GuiLanguage;
+import net.minecraft.client.gui.GuiOptions;
+import net.minecraft.client.gui.GuiScreen;
+import net.minecraft.client.gui.GuiScreenOptionsSounds;
+import net.minecraft.client.gui.GuiScreenResourcePacks;
+import net.minecraft.client.gui.GuiSnooper;
+import net.minecraft.client.gui.GuiVideoSettings;
+import net.minecraft.client.gui.ScreenChatOptions;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.settings.GameSettings;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.init.MobEffects;
+import net.minecraftforge.client.event.EntityViewRenderEvent.FogDensity;
 import net.minecraftforge.client.event.EntityViewRenderEvent.RenderFogEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.network.FMLNetworkEvent;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.world.JEDWorldProperties;
 
 public class JEDEventHandlerClientFog
 {
+    /** The user's own render distance, while it's being limited by the current dimension */
+    private int originalRenderDistance = -1;
+    private int appliedRenderDistance = -1;
+
+    @SubscribeEvent
+    public void onFogDensity(FogDensity event)
+    {
+        Float density = JEDWorldProperties.getClientProperties().getFogDensity();
+
+        // Leave the fog inside liquids and with the blindness effect to vanilla
+        if (density != null && event.getState().getMaterial().isLiquid() == false && this.isBlind(event.getEntity()) == false)
+        {
+            GlStateManager.setFog(GlStateManager.FogMode.EXP2);
+            event.setDensity(Math.max(density.floatValue(), 0.0F));
+            event.setCanceled(true);
+        }
+    }
+
     @SubscribeEvent
     public void onRenderFog(RenderFogEvent event)
     {
-        //JEDWorldProperties props = JEDWorldProperties.getClientProperties();
+        JEDWorldProperties props = JEDWorldProperties.getClientProperties();
+        Float fogEnd = props.getFogEnd();
+
+        if (fogEnd != null && event.getState().getMaterial().isLiquid() == false && this.isBlind(event.getEntity()) == false)
+        {
+            float end = Math.min(fogEnd.floatValue(), event.getFarPlaneDistance());
+            Float fogStart = props.getFogStart();
+            // The sky fog (mode -1) always starts right at the camera in vanilla
+            float start = event.getFogMode() == -1 ? 0.0F : (fogStart != null ? Math.min(fogStart.floatValue(), end) : end * 0.75F);
+
+            GlStateManager.setFogStart(start);
+            GlStateManager.setFogEnd(end);
+        }
+    }
+
+    @SubscribeEvent
+    public void onClientDisconnect(FMLNetworkEvent.ClientDisconnectionFromServerEvent event)
+    {
+        // Don't carry over the fog, sky and render distance settings of the last dimension to the next server
+        JEDWorldProperties.setClientProperties(null);
+    }
+
+    @SubscribeEvent
+    public void onClientTick(TickEvent.ClientTickEvent event)
+    {
+        if (event.phase != TickEvent.Phase.END)
+        {
+            return;
+        }
+
+        Minecraft mc = Minecraft.getMinecraft();
+        GameSettings settings = mc.gameSettings;
+        int maxDistance = this.getRenderDistanceLimit(mc);
+
+        if (maxDistance <= 0)
+        {
+            this.restoreRenderDistance(settings);
+            return;
+        }
+
+        // Entering a limited dimension, or the user has changed the render distance, use that as the original value
+        if (this.originalRenderDistance < 0 || settings.renderDistanceChunks != this.appliedRenderDistance)
+        {
+            this.originalRenderDistance = settings.renderDistanceChunks;
+        }
+
+        int distance = Math.min(this.originalRenderDistance, maxDistance);
+
+        if (settings.renderDistanceChunks != distance)
+        {
+            JustEnoughDimensions.logInfo("JEDEventHandlerClientFog: Limiting the render distance to {} chunks", distance);
+            // RenderGlobal notices the change and reloads the renderers with the smaller distance
+            settings.renderDistanceChunks = distance;
+        }
+
+        this.appliedRenderDistance = distance;
+    }
+
+    /**
+     * @return the render distance limit that should currently be applied, or -1 for none
+     */
+    private int getRenderDistanceLimit(Minecraft mc)
+    {
+        // The integrated server uses the client's render distance as the view distance of all the dimensions,
+        // so the limit is only applied when playing on a remote server.
+        // It's also lifted while the options menus are open, so that they show and save the user's own value.
+        if (mc.world == null || mc.isIntegratedServerRunning() || this.isOptionsScreen(mc.currentScreen))
+        {
+            return -1;
+        }
+
+        Integer maxDistance = JEDWorldProperties.getClientProperties().getMaxRenderDistance();
+
+        return maxDistance != null ? maxDistance.intValue() : -1;
+    }
+
+    private boolean isOptionsScreen(@Nullable GuiScreen screen)
+    {
+        return screen instanceof GuiIngameMenu ||
+               screen instanceof GuiOptions ||
+               screen instanceof GuiVideoSettings ||
+               screen instanceof GuiControls ||
+               screen instanceof GuiScreenOptionsSounds ||
+               screen instanceof ScreenChatOptions ||
+               screen instanceof GuiCustomizeSkin ||
+               screen instanceof GuiLanguage ||
+               screen instanceof GuiScreenResourcePacks ||
+               screen instanceof GuiSnooper;
+    }
 
-        /*
-        if (props)
+    private void restoreRenderDistance(GameSettings settings)
+    {
+        if (this.originalRenderDistance >= 0)
         {
-            GlStateManager.setFogStart(f * 0.05F);
-            GlStateManager.setFogEnd(Math.min(f, 192.0F) * 0.5F);
+            // If the value is different, then the user has changed it, keep that value
+            if (settings.renderDistanceChunks == this.appliedRenderDistance)
+            {
+                JustEnoughDimensions.logInfo("JEDEventHandlerClientFog: Restoring the render distance to {} chunks", this.originalRenderDistance);
+                settings.renderDistanceChunks = this.originalRenderDistance;
+            }
+
+            this.originalRenderDistance = -1;
+            this.appliedRenderDistance = -1;
         }
-        */
+    }
+
+    private boolean isBlind(Entity entity)
+    {
+        return entity instanceof EntityLivingBase && ((EntityLivingBase) entity).isPotionActive(MobEffects.BLINDNESS);
     }
 }
@@ -1,7 +1,6 @@
 package fi.dy.masa.justenoughdimensions.network;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import net.minecraft.client.Minecraft;
 import net.minecraft.world.DimensionType;
@@ -9,38 +8,35 @@ import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.fml.client.FMLClientHandler;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfigEntry;
+import fi.dy.masa.justenoughdimensions.network.MessageSyncDimensions.RegistrySnapshot;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 
 public class DimensionSyncPacket
 {
+    /** The dimensions that have been registered on the client from the server's dimension syncs */
+    private static final IntSet clientRegisteredDimensions = new IntOpenHashSet();
+    private static int clientRegistryGeneration;
+
     private ByteBuf buffer = Unpooled.buffer();
     private List<DimensionConfigEntry> dimensions = new ArrayList<DimensionConfigEntry>();
+    private int generation;
 
-    public void addDimensionData(Collection<DimensionConfigEntry> entries)
+    public void setRegistrySnapshot(RegistrySnapshot snapshot)
     {
-        this.buffer.writeInt(entries.size());
-
-        for (DimensionConfigEntry entry : entries)
-        {
-            entry.writeToByteBuf(this.buffer);
-        }
+        this.buffer.writeInt(snapshot.getGeneration());
+        this.buffer.writeBytes(snapshot.getData());
     }
 
     public void consumePacket(ByteBuf buf)
     {
-        int count = buf.readInt();
-        this.dimensions.clear();
-
-        for (int i = 0 ; i < count ; i++)
-        {
-            DimensionConfigEntry entry = DimensionConfigEntry.fromByteBuf(buf);
-
-            if (entry != null)
-            {
-                this.dimensions.add(entry);
-            }
-        }
+        this.generation = buf.readInt();
+        this.dimensions = MessageSyncDimensions.readEntries(buf);
     }
 
     public ByteBuf getData()
@@ -69,8 +65,21 @@ public class DimensionSyncPacket
 
     protected void processMessage()
     {
+        String removed = unregisterStaleDimensions(this.dimensions);
         String str = registerDimensions(this.dimensions);
-        JustEnoughDimensions.logInfo("DimensionSyncPacket: Registered dimensions: '" + str + "'");
+        setClientRegistryGeneration(this.generation);
+        JustEnoughDimensions.logInfo("DimensionSyncPacket: Registry generation {}: Unregistered stale dimensions: '{}', registered dimensions: '{}'",
+                this.generation, removed, str);
+    }
+
+    public static int getClientRegistryGeneration()
+    {
+        return clientRegistryGeneration;
+    }
+
+    public static void setClientRegistryGeneration(int generation)
+    {
+        clientRegistryGeneration = generation;
     }
 
     /**
@@ -95,6 +104,65 @@ public class DimensionSyncPacket
         return String.join(", ", ids);
     }
 
+    /**
+     * Unregisters all the dimensions that were registered from an earlier sync
+     * (for example from the previously joined server), but which are not in the given full snapshot.
+     * @param snapshot all the dimensions currently registered on the server
+     * @return a string for logging purposes of all the unregistered dimensions
+     */
+    public static String unregisterStaleDimensions(List<DimensionConfigEntry> snapshot)
+    {
+        IntSet current = new IntOpenHashSet();
+        IntList stale = new IntArrayList();
+
+        for (DimensionConfigEntry entry : snapshot)
+        {
+            if (entry.getUnregister() == false && entry.hasDimensionTypeEntry())
+            {
+                current.add(entry.getDimension());
+            }
+        }
+
+        for (IntIterator iter = clientRegisteredDimensions.iterator(); iter.hasNext(); )
+        {
+            int dimension = iter.nextInt();
+
+            if (current.contains(dimension) == false)
+            {
+                stale.add(dimension);
+            }
+        }
+
+        return unregisterDimensions(stale);
+    }
+
+    /**
+     * Unregisters all the dimensions on the provided list, except for the one the client is currently in.
+     * @param dimensions
+     * @return a string for logging purposes of all the unregistered dimensions
+     */
+    public static String unregisterDimensions(IntList dimensions)
+    {
+        Minecraft mc = FMLClientHandler.instance().getClient();
+        List<String> ids = new ArrayList<String>();
+
+        for (int i = 0; i < dimensions.size(); i++)
+        {
+            int dimension = dimensions.getInt(i);
+
+            if (dimension != 0 && DimensionManager.isDimensionRegistered(dimension) &&
+                (mc.world == null || mc.world.provider.getDimension() != dimension))
+            {
+                JustEnoughDimensions.logInfo("DimensionSyncPacket.unregisterDimensions: Unregistering dimension {}", dimension);
+                DimensionManager.unregisterDimension(dimension);
+                clientRegisteredDimensions.remove(dimension);
+                ids.add(String.valueOf(dimension));
+            }
+        }
+
+        return String.join(", ", ids);
+    }
+
     private static void registerDimension(int dimension, DimensionConfigEntry entry)
     {
         if (entry.getUnregister() || entry.hasDimensionTypeEntry() == false)
@@ -117,6 +185,7 @@ public class DimensionSyncPacket
         {
             JustEnoughDimensions.logInfo("DimensionSyncPacket.registerDimension: Registering dimension {}", dimension);
             DimensionManager.registerDimension(dimension, entry.getDimensionTypeEntry().getOrRegisterDimensionType(dimension));
+            clientRegisteredDimensions.add(dimension);
         }
     }
 }
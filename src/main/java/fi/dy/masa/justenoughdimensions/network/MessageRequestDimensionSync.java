@@ -0,0 +1,57 @@
+package fi.dy.masa.justenoughdimensions.network;
+
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.config.DimensionConfig;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Sent by the client when it notices that it has missed some dimension registry changes,
+ * to request a full snapshot of the registered dimensions.
+ */
+public class MessageRequestDimensionSync implements IMessage
+{
+    public MessageRequestDimensionSync()
+    {
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+    }
+
+    public static class Handler implements IMessageHandler<MessageRequestDimensionSync, IMessage>
+    {
+        @Override
+        public IMessage onMessage(final MessageRequestDimensionSync message, MessageContext ctx)
+        {
+            if (ctx.side != Side.SERVER)
+            {
+                JustEnoughDimensions.logger.error("Wrong side in MessageRequestDimensionSync: " + ctx.side);
+                return null;
+            }
+
+            final EntityPlayerMP player = ctx.getServerHandler().player;
+
+            player.getServerWorld().addScheduledTask(new Runnable()
+            {
+                public void run()
+                {
+                    JustEnoughDimensions.logInfo("MessageRequestDimensionSync: Sending a full dimension sync to player '{}'", player.getName());
+                    PacketHandler.INSTANCE.sendTo(new MessageSyncDimensions(DimensionConfig.instance().getRegistrySnapshot()), player);
+                }
+            });
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package fi.dy.masa.justenoughdimensions.network;
+
+import com.google.common.hash.HashCode;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.util.world.WorldUtils;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Sent by the client when it received only the hash of the world properties,
+ * but it doesn't have those properties cached anymore.
+ */
+public class MessageRequestWorldProperties implements IMessage
+{
+    private HashCode propertiesHash;
+
+    public MessageRequestWorldProperties()
+    {
+    }
+
+    public MessageRequestWorldProperties(HashCode propertiesHash)
+    {
+        this.propertiesHash = propertiesHash;
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        byte[] hash = this.propertiesHash.asBytes();
+        buf.writeByte(hash.length);
+        buf.writeBytes(hash);
+    }
+
+    @Override
+    public void fromBytes(ByteBuf buf)
+    {
+        byte[] hash = new byte[buf.readUnsignedByte()];
+        buf.readBytes(hash);
+        this.propertiesHash = HashCode.fromBytes(hash);
+    }
+
+    public static class Handler implements IMessageHandler<MessageRequestWorldProperties, IMessage>
+    {
+        @Override
+        public IMessage onMessage(final MessageRequestWorldProperties message, MessageContext ctx)
+        {
+            if (ctx.side != Side.SERVER)
+            {
+                JustEnoughDimensions.logger.error("Wrong side in MessageRequestWorldProperties: " + ctx.side);
+                return null;
+            }
+
+            final EntityPlayerMP player = ctx.getServerHandler().player;
+
+            player.getServerWorld().addScheduledTask(new Runnable()
+            {
+                public void run()
+                {
+                    WorldPropertiesSyncCache.forgetSentPayload(player, message.propertiesHash);
+                    WorldUtils.syncWorldProviderProperties(player);
+                }
+            });
+
+            return null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package fi.dy.masa.justenoughdimensions.network;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import javax.annotation.Nullable;
 import net.minecraft.client.Minecraft;
 import net.minecraftforge.fml.client.FMLClientHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -12,25 +13,103 @@ import net.minecraftforge.fml.relauncher.Side;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfigEntry;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 
+/**
+ * Syncs the JED dimension registrations to the clients.
+ * This is either a full snapshot of all the registered dimensions, or a delta
+ * of the dimensions that have been registered and unregistered since the previous registry generation.
+ */
 public class MessageSyncDimensions implements IMessage
 {
+    private int generation;
+    private boolean isFullSnapshot;
+    @Nullable
+    private byte[] snapshot;
     private List<DimensionConfigEntry> dimensions = new ArrayList<DimensionConfigEntry>();
+    private IntList removedDimensions = new IntArrayList();
 
     public MessageSyncDimensions()
     {
     }
 
-    public MessageSyncDimensions(Collection<DimensionConfigEntry> entries)
+    /**
+     * Creates a delta message of the registry changes, which moved the registry to the given generation
+     */
+    public MessageSyncDimensions(int generation, Collection<DimensionConfigEntry> added, Collection<Integer> removed)
     {
-        this.dimensions.addAll(entries);
+        this.generation = generation;
+        this.dimensions.addAll(added);
+        this.removedDimensions.addAll(removed);
+    }
+
+    /**
+     * Creates a full sync message from the cached, already serialized registry snapshot
+     */
+    public MessageSyncDimensions(RegistrySnapshot snapshot)
+    {
+        this.generation = snapshot.getGeneration();
+        this.isFullSnapshot = true;
+        this.snapshot = snapshot.getData();
     }
 
     @Override
     public void fromBytes(ByteBuf buf)
     {
+        this.generation = buf.readInt();
+        this.isFullSnapshot = buf.readBoolean();
+        this.dimensions = readEntries(buf);
+        this.removedDimensions.clear();
+
+        if (this.isFullSnapshot == false)
+        {
+            int count = buf.readInt();
+
+            for (int i = 0 ; i < count ; i++)
+            {
+                this.removedDimensions.add(buf.readInt());
+            }
+        }
+    }
+
+    @Override
+    public void toBytes(ByteBuf buf)
+    {
+        buf.writeInt(this.generation);
+        buf.writeBoolean(this.isFullSnapshot);
+
+        if (this.isFullSnapshot)
+        {
+            buf.writeBytes(this.snapshot);
+        }
+        else
+        {
+            writeEntries(buf, this.dimensions);
+            buf.writeInt(this.removedDimensions.size());
+
+            for (int i = 0 ; i < this.removedDimensions.size() ; i++)
+            {
+                buf.writeInt(this.removedDimensions.getInt(i));
+            }
+        }
+    }
+
+    public static void writeEntries(ByteBuf buf, Collection<DimensionConfigEntry> entries)
+    {
+        buf.writeInt(entries.size());
+
+        for (DimensionConfigEntry entry : entries)
+        {
+            entry.writeToByteBuf(buf);
+        }
+    }
+
+    public static List<DimensionConfigEntry> readEntries(ByteBuf buf)
+    {
+        List<DimensionConfigEntry> list = new ArrayList<DimensionConfigEntry>();
         int count = buf.readInt();
-        this.dimensions.clear();
 
         for (int i = 0 ; i < count ; i++)
         {
@@ -38,19 +117,43 @@ public class MessageSyncDimensions implements IMessage
 
             if (entry != null)
             {
-                this.dimensions.add(entry);
+                list.add(entry);
             }
         }
+
+        return list;
     }
 
-    @Override
-    public void toBytes(ByteBuf buf)
+    /**
+     * An immutable, serialized list of all the registered dimensions at one registry generation.
+     * This gets cached on the server, so that it doesn't need to be re-serialized for every client connection.
+     */
+    public static class RegistrySnapshot
     {
-        buf.writeInt(this.dimensions.size());
+        private final int generation;
+        private final byte[] data;
 
-        for (DimensionConfigEntry entry : this.dimensions)
+        public RegistrySnapshot(int generation, Collection<DimensionConfigEntry> entries)
         {
-            entry.writeToByteBuf(buf);
+            ByteBuf buf = Unpooled.buffer();
+            writeEntries(buf, entries);
+
+            this.generation = generation;
+            this.data = new byte[buf.readableBytes()];
+            buf.readBytes(this.data);
+        }
+
+        public int getGeneration()
+        {
+            return this.generation;
+        }
+
+        /**
+         * @return the serialized entries. The returned array must not be modified.
+         */
+        public byte[] getData()
+        {
+            return this.data;
         }
     }
 
@@ -85,8 +188,31 @@ public class MessageSyncDimensions implements IMessage
 
         protected void processMessage(final MessageSyncDimensions message)
         {
+            if (message.isFullSnapshot)
+            {
+                // A full snapshot replaces the earlier state, so any dimensions that are no longer in it must go
+                String removed = DimensionSyncPacket.unregisterStaleDimensions(message.dimensions);
+                String str = DimensionSyncPacket.registerDimensions(message.dimensions);
+                DimensionSyncPacket.setClientRegistryGeneration(message.generation);
+                JustEnoughDimensions.logInfo("MessageSyncDimensions: Full sync: Unregistered stale dimensions: '{}', registered dimensions: '{}'",
+                        removed, str);
+                return;
+            }
+
+            // Missed some earlier change(s), apply this delta anyway but also request a full sync
+            if (message.generation != DimensionSyncPacket.getClientRegistryGeneration() + 1)
+            {
+                JustEnoughDimensions.logInfo("MessageSyncDimensions: Expected registry generation {}, got {}, requesting a full sync",
+                        DimensionSyncPacket.getClientRegistryGeneration() + 1, message.generation);
+                PacketHandler.INSTANCE.sendToServer(new MessageRequestDimensionSync());
+            }
+
+            String removed = DimensionSyncPacket.unregisterDimensions(message.removedDimensions);
             String str = DimensionSyncPacket.registerDimensions(message.dimensions);
-            JustEnoughDimensions.logInfo("MessageSyncDimensions: Registered dimensions: '" + str + "'");
+            DimensionSyncPacket.setClientRegistryGeneration(message.generation);
+
+            JustEnoughDimensions.logInfo("MessageSyncDimensions: Registry generation {}: Unregistered dimensions: '{}', registered dimensions: '{}'",
+                    message.generation, removed, str);
         }
     }
 }
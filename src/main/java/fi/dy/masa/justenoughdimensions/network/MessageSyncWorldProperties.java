@@ -1,16 +1,17 @@
 package fi.dy.masa.justenoughdimensions.network;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
 import javax.annotation.Nullable;
+import com.google.common.hash.HashCode;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.SPacketWorldBorder;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.client.FMLClientHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -26,28 +27,50 @@ import fi.dy.masa.justenoughdimensions.world.IWorldProviderJED;
 import fi.dy.masa.justenoughdimensions.world.JEDWorldProperties;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
 
 public class MessageSyncWorldProperties implements IMessage
 {
     @Nullable
     private JsonObject jedProperties;
+    @Nullable
+    private WorldPropertiesPayload payload;
+    @Nullable
+    private HashCode propertiesHash;
+    @Nullable
+    private SPacketWorldBorder worldBorder;
     private boolean hasJEDTag;
+    private boolean hashOnly;
     private boolean isHardcore;
 
     public MessageSyncWorldProperties()
     {
     }
 
-    public MessageSyncWorldProperties(World world)
+    /**
+     * Creates the sync message for the given player's current world.
+     * If the player has already received the exact same properties during this session,
+     * then only the hash of the properties is sent, and the client uses its cached copy.
+     * @param worldBorder if not null, then this world border packet is bundled into this message
+     */
+    public MessageSyncWorldProperties(World world, EntityPlayer player, @Nullable SPacketWorldBorder worldBorder)
     {
         this.isHardcore = world.getWorldInfo().isHardcoreModeEnabled();
+        this.worldBorder = worldBorder;
         JEDWorldProperties props = JEDWorldProperties.getPropertiesIfExists(world);
 
         if (props != null)
         {
-            this.hasJEDTag = true;
-            this.jedProperties = props.getJEDPropsForClientSync();
+            try
+            {
+                this.payload = props.getClientSyncPayload();
+                this.propertiesHash = this.payload.getHash();
+                this.hasJEDTag = true;
+                this.hashOnly = WorldPropertiesSyncCache.markSentTo(player, this.propertiesHash);
+            }
+            catch (IOException e)
+            {
+                JustEnoughDimensions.logger.error("MessageSyncWorldProperties: Failed to create the JEDWorldProperties sync payload", e);
+            }
         }
     }
 
@@ -55,20 +78,34 @@ public class MessageSyncWorldProperties implements IMessage
     public void toBytes(ByteBuf buf)
     {
         buf.writeBoolean(this.isHardcore);
-        // Has the JED World Properties object
-        buf.writeBoolean(this.hasJEDTag);
+        buf.writeBoolean(this.worldBorder != null);
 
-        if (this.hasJEDTag)
+        if (this.worldBorder != null)
         {
             try
             {
-                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(new ByteBufOutputStream(buf))));
-                data.writeUTF(JEDJsonUtils.serialize(this.jedProperties));
-                data.close();
+                this.worldBorder.writePacketData(new PacketBuffer(buf));
             }
             catch (IOException e)
             {
-                JustEnoughDimensions.logger.error("MessageSyncWorldProperties.toBytes(): Failed to write the JEDWorldProperties object to ByteBuf", e);
+                JustEnoughDimensions.logger.error("MessageSyncWorldProperties.toBytes(): Failed to write the world border to ByteBuf", e);
+            }
+        }
+
+        // Has the JED World Properties object
+        buf.writeBoolean(this.hasJEDTag);
+
+        if (this.hasJEDTag)
+        {
+            byte[] hash = this.propertiesHash.asBytes();
+            buf.writeByte(hash.length);
+            buf.writeBytes(hash);
+            buf.writeBoolean(this.hashOnly);
+
+            if (this.hashOnly == false)
+            {
+                // The payload is already deflated, it's shared by all the messages for the same properties
+                buf.writeBytes(this.payload.getCompressedData());
             }
         }
     }
@@ -77,11 +114,36 @@ public class MessageSyncWorldProperties implements IMessage
     public void fromBytes(ByteBuf buf)
     {
         this.isHardcore = buf.readBoolean();
+
+        if (buf.readBoolean())
+        {
+            try
+            {
+                this.worldBorder = new SPacketWorldBorder();
+                this.worldBorder.readPacketData(new PacketBuffer(buf));
+            }
+            catch (IOException e)
+            {
+                JustEnoughDimensions.logger.error("MessageSyncWorldProperties.fromBytes(): Failed to read the world border from ByteBuf", e);
+                this.worldBorder = null;
+            }
+        }
+
         this.hasJEDTag = buf.readBoolean();
 
         // Has the JED World Properties object
         if (this.hasJEDTag)
         {
+            byte[] hash = new byte[buf.readUnsignedByte()];
+            buf.readBytes(hash);
+            this.propertiesHash = HashCode.fromBytes(hash);
+            this.hashOnly = buf.readBoolean();
+
+            if (this.hashOnly)
+            {
+                return;
+            }
+
             try
             {
                 DataInputStream data = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new ByteBufInputStream(buf))));
@@ -133,6 +195,30 @@ public class MessageSyncWorldProperties implements IMessage
         protected void processMessage(final MessageSyncWorldProperties message, final World world)
         {
             world.getWorldInfo().setHardcore(message.isHardcore);
+
+            if (message.worldBorder != null)
+            {
+                message.worldBorder.apply(world.getWorldBorder());
+            }
+
+            if (message.hasJEDTag && message.hashOnly)
+            {
+                message.jedProperties = WorldPropertiesSyncCache.getClientPayload(message.propertiesHash);
+
+                // Not cached anymore, request the full properties from the server
+                if (message.jedProperties == null)
+                {
+                    JustEnoughDimensions.logInfo("MessageSyncWorldProperties - DIM: {}: Properties with hash {} not cached, requesting them",
+                            world.provider.getDimension(), message.propertiesHash);
+                    PacketHandler.INSTANCE.sendToServer(new MessageRequestWorldProperties(message.propertiesHash));
+                    return;
+                }
+            }
+            else if (message.hasJEDTag && message.jedProperties != null)
+            {
+                WorldPropertiesSyncCache.putClientPayload(message.propertiesHash, message.jedProperties);
+            }
+
             JEDWorldProperties.setClientProperties(message.jedProperties);
 
             if (world.provider instanceof IWorldProviderJED)
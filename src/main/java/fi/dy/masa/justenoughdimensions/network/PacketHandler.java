@@ -13,5 +13,7 @@ public class PacketHandler
     {
         INSTANCE.registerMessage(MessageSyncDimensions.Handler.class, MessageSyncDimensions.class, 0, Side.CLIENT);
         INSTANCE.registerMessage(MessageSyncWorldProperties.Handler.class, MessageSyncWorldProperties.class, 1, Side.CLIENT);
+        INSTANCE.registerMessage(MessageRequestWorldProperties.Handler.class, MessageRequestWorldProperties.class, 2, Side.SERVER);
+        INSTANCE.registerMessage(MessageRequestDimensionSync.Handler.class, MessageRequestDimensionSync.class, 3, Side.SERVER);
     }
 }
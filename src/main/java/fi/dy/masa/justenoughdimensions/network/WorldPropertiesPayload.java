@@ -0,0 +1,56 @@
+package fi.dy.masa.justenoughdimensions.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonObject;
+import fi.dy.masa.justenoughdimensions.util.JEDJsonUtils;
+
+/**
+ * The ready-to-send, compressed form of one dimension's JED world properties,
+ * along with the content hash used for the client side cache.
+ * These are created once per JEDWorldProperties instance and then shared by all the sync messages.
+ */
+public class WorldPropertiesPayload
+{
+    private final HashCode hash;
+    private final byte[] compressedData;
+
+    private WorldPropertiesPayload(HashCode hash, byte[] compressedData)
+    {
+        this.hash = hash;
+        this.compressedData = compressedData;
+    }
+
+    public HashCode getHash()
+    {
+        return this.hash;
+    }
+
+    /**
+     * @return the deflated properties, in the format read by MessageSyncWorldProperties#fromBytes().
+     * The returned array must not be modified.
+     */
+    public byte[] getCompressedData()
+    {
+        return this.compressedData;
+    }
+
+    public static WorldPropertiesPayload create(JsonObject properties) throws IOException
+    {
+        String serialized = JEDJsonUtils.serialize(properties);
+        HashCode hash = Hashing.sha1().hashString(serialized, StandardCharsets.UTF_8);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream data = new DataOutputStream(new DeflaterOutputStream(bytes)))
+        {
+            data.writeUTF(serialized);
+        }
+
+        return new WorldPropertiesPayload(hash, bytes.toByteArray());
+    }
+}
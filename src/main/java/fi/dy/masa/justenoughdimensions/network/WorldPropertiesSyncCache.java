@@ -0,0 +1,80 @@
+package fi.dy.masa.justenoughdimensions.network;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import javax.annotation.Nullable;
+import com.google.common.hash.HashCode;
+import com.google.gson.JsonObject;
+import net.minecraft.entity.player.EntityPlayer;
+
+/**
+ * Keeps track of the JED world properties payloads by their content hash.
+ * On the server this tracks which payloads each player has already received during the current session,
+ * so that only the hash needs to be sent the next time. On the client this holds the received payloads.
+ */
+public class WorldPropertiesSyncCache
+{
+    private static final int CLIENT_CACHE_SIZE = 64;
+    private static final Map<UUID, Set<HashCode>> SENT_PAYLOADS = new HashMap<>();
+    private static final Map<HashCode, JsonObject> CLIENT_PAYLOADS = new LinkedHashMap<HashCode, JsonObject>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<HashCode, JsonObject> eldest)
+        {
+            return this.size() > CLIENT_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Marks the payload with the given hash as sent to the given player.
+     * @param player
+     * @param hash
+     * @return true if the player had already received this payload before
+     */
+    public static boolean markSentTo(EntityPlayer player, HashCode hash)
+    {
+        Set<HashCode> sent = SENT_PAYLOADS.computeIfAbsent(player.getUniqueID(), (uuid) -> new HashSet<>());
+        return sent.add(hash) == false;
+    }
+
+    /**
+     * Forgets that the given player had the given payload, for example
+     * when the client reports that it no longer has it cached.
+     */
+    public static void forgetSentPayload(EntityPlayer player, HashCode hash)
+    {
+        Set<HashCode> sent = SENT_PAYLOADS.get(player.getUniqueID());
+
+        if (sent != null)
+        {
+            sent.remove(hash);
+        }
+    }
+
+    public static void removePlayer(EntityPlayer player)
+    {
+        SENT_PAYLOADS.remove(player.getUniqueID());
+    }
+
+    public static void clearSentPayloads()
+    {
+        SENT_PAYLOADS.clear();
+    }
+
+    public static void putClientPayload(HashCode hash, JsonObject payload)
+    {
+        CLIENT_PAYLOADS.put(hash, payload);
+    }
+
+    @Nullable
+    public static JsonObject getClientPayload(HashCode hash)
+    {
+        return CLIENT_PAYLOADS.get(hash);
+    }
+}
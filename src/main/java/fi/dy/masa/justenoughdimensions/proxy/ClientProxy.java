@@ -1,9 +1,12 @@
 package fi.dy.masa.justenoughdimensions.proxy;
 
+import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 import fi.dy.masa.justenoughdimensions.config.Configs;
 import fi.dy.masa.justenoughdimensions.event.JEDEventHandlerClient;
+import fi.dy.masa.justenoughdimensions.event.JEDEventHandlerClientFog;
+import fi.dy.masa.justenoughdimensions.util.ClientUtils;
 
 public class ClientProxy extends CommonProxy
 {
@@ -16,6 +19,7 @@ public class ClientProxy extends CommonProxy
         super.registerEventHandlers();
 
         MinecraftForge.EVENT_BUS.register(new Configs());
+        MinecraftForge.EVENT_BUS.register(new JEDEventHandlerClientFog());
     }
 
     @Override
@@ -39,4 +43,10 @@ public class ClientProxy extends CommonProxy
             registered = false;
         }
     }
+
+    @Override
+    public void onClientWorldUnload(World world)
+    {
+        ClientUtils.releaseRenderers(world.provider);
+    }
 }
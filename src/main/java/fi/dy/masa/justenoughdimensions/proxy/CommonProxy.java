@@ -1,5 +1,6 @@
 package fi.dy.masa.justenoughdimensions.proxy;
 
+import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import fi.dy.masa.justenoughdimensions.event.JEDEventHandler;
 
@@ -17,4 +18,8 @@ public class CommonProxy
     public void unregisterClientEventHandler()
     {
     }
+
+    public void onClientWorldUnload(World world)
+    {
+    }
 }
@@ -51,7 +51,7 @@ public class ClientUtils
                 skySettings.sunColor  = JEDJsonUtils.hasString(obj, "SunColor")  ? JEDStringUtils.hexStringToColor(JEDJsonUtils.getString(obj, "SunColor")) : new Vec3d(1.0, 1.0, 1.0);
                 skySettings.moonColor = JEDJsonUtils.hasString(obj, "MoonColor") ? JEDStringUtils.hexStringToColor(JEDJsonUtils.getString(obj, "MoonColor")) : new Vec3d(1.0, 1.0, 1.0);
 
-                provider.setSkyRenderer(new SkyRenderer(skyRenderType, skySettings));
+                setRenderer(provider, SkyRenderer.acquire(skyRenderType, skySettings), RendererType.SKY);
                 success = true;
             }
             /*
@@ -117,11 +117,30 @@ public class ClientUtils
         return false;
     }
 
+    /**
+     * Releases the shared renderers used by the given WorldProvider, when the world is being unloaded
+     */
+    public static void releaseRenderers(WorldProvider provider)
+    {
+        releaseSkyRenderer(provider.getSkyRenderer());
+    }
+
+    private static void releaseSkyRenderer(@Nullable IRenderHandler oldRenderer)
+    {
+        // The new renderer has already been acquired, so releasing the old one
+        // can't free the shared resources even if it's the same instance
+        if (oldRenderer instanceof SkyRenderer)
+        {
+            ((SkyRenderer) oldRenderer).release();
+        }
+    }
+
     private static void setRenderer(WorldProvider provider, IRenderHandler renderer, RendererType type)
     {
         switch (type)
         {
             case SKY:
+                releaseSkyRenderer(provider.getSkyRenderer());
                 provider.setSkyRenderer(renderer);
                 break;
             case CLOUD:
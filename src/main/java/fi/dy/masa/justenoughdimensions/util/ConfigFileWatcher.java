@@ -0,0 +1,269 @@
+package fi.dy.masa.justenoughdimensions.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import net.minecraft.server.MinecraftServer;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.config.Configs;
+import fi.dy.masa.justenoughdimensions.config.DimensionConfig;
+import fi.dy.masa.justenoughdimensions.config.DimensionConfigDirectory;
+import fi.dy.masa.justenoughdimensions.reference.Reference;
+
+/**
+ * Watches the JED config directories for changes, and reloads the main config
+ * and the dimension config on the server thread when their contents have changed.
+ * Bursts of file events are debounced, and the files are only reloaded
+ * if their content hash is different from the last time they were checked.
+ * The files that JED writes itself are recorded via onFileWritten(), so that they don't trigger a reload.
+ */
+public class ConfigFileWatcher
+{
+    private static volatile ConfigFileWatcher instance;
+
+    private final MinecraftServer server;
+    private final WatchService watchService;
+    private final Map<File, HashCode> fileHashes = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private ConfigFileWatcher(MinecraftServer server, @Nullable File worldDir) throws IOException
+    {
+        this.server = server;
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        File configDir = Configs.getConfigDir();
+        this.registerDirectory(configDir);
+        this.registerDirectory(new File(configDir, DimensionConfigDirectory.DIRECTORY_NAME));
+
+        if (worldDir != null)
+        {
+            File worldConfigDir = new File(new File(worldDir, "data"), Reference.MOD_ID);
+            this.registerDirectory(worldConfigDir);
+            this.registerDirectory(new File(worldConfigDir, DimensionConfigDirectory.DIRECTORY_NAME));
+        }
+
+        this.hasFileChanged(getMainConfigFile());
+        this.hasDimensionConfigChanged();
+
+        this.thread = new Thread(this::run, "JED Config Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public static void start(MinecraftServer server, @Nullable File worldDir)
+    {
+        stop();
+
+        if (Configs.enableConfigFileWatcher)
+        {
+            try
+            {
+                instance = new ConfigFileWatcher(server, worldDir);
+                JustEnoughDimensions.logInfo("ConfigFileWatcher: Started watching the config files for changes");
+            }
+            catch (Exception e)
+            {
+                JustEnoughDimensions.logger.warn("ConfigFileWatcher: Failed to start the config file watcher", e);
+            }
+        }
+    }
+
+    public static void stop()
+    {
+        if (instance != null)
+        {
+            instance.running = false;
+
+            try
+            {
+                instance.watchService.close();
+            }
+            catch (IOException e)
+            {
+            }
+
+            instance.thread.interrupt();
+            instance = null;
+        }
+    }
+
+    /**
+     * Records the current contents of a config file that JED has just written itself,
+     * so that the watcher doesn't reload the config because of that write.
+     * @param file
+     */
+    public static void onFileWritten(File file)
+    {
+        ConfigFileWatcher watcher = instance;
+
+        if (watcher != null)
+        {
+            watcher.hasFileChanged(file);
+        }
+    }
+
+    private void registerDirectory(File dir) throws IOException
+    {
+        if (dir.isDirectory())
+        {
+            dir.toPath().register(this.watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        }
+    }
+
+    private void run()
+    {
+        long lastEventTime = 0;
+        boolean pending = false;
+
+        while (this.running)
+        {
+            try
+            {
+                WatchKey key = this.watchService.poll(100, TimeUnit.MILLISECONDS);
+
+                if (key != null)
+                {
+                    for (WatchEvent<?> event : key.pollEvents())
+                    {
+                        if (event.kind() != StandardWatchEventKinds.OVERFLOW)
+                        {
+                            JustEnoughDimensions.logInfo("ConfigFileWatcher: Detected a change in '{}'",
+                                    ((Path) key.watchable()).resolve((Path) event.context()));
+                        }
+                    }
+
+                    key.reset();
+                    lastEventTime = System.currentTimeMillis();
+                    pending = true;
+                }
+                else if (pending && System.currentTimeMillis() - lastEventTime >= Configs.configFileWatcherDelay)
+                {
+                    pending = false;
+                    this.reloadChangedConfigs();
+                }
+            }
+            catch (InterruptedException | ClosedWatchServiceException e)
+            {
+                break;
+            }
+        }
+    }
+
+    private void reloadChangedConfigs()
+    {
+        final boolean mainConfigChanged = this.hasFileChanged(getMainConfigFile());
+        final boolean dimensionConfigChanged = this.hasDimensionConfigChanged();
+
+        if (mainConfigChanged || dimensionConfigChanged)
+        {
+            this.server.addScheduledTask(() ->
+            {
+                if (mainConfigChanged)
+                {
+                    Configs.reloadConfigsFromFile();
+                }
+
+                if (dimensionConfigChanged)
+                {
+                    DimensionConfig.instance().reloadDimensionConfig();
+                }
+            });
+        }
+    }
+
+    /**
+     * Checks if the current dimensions.json file, or any of the files
+     * in the dimensions.d directory next to it, have changed since the last check.
+     */
+    private synchronized boolean hasDimensionConfigChanged()
+    {
+        File configFile = DimensionConfig.instance().getCurrentDimensionConfigFile();
+
+        if (configFile == null)
+        {
+            return false;
+        }
+
+        // Note: no short-circuiting, all the hashes need to be updated
+        boolean changed = this.hasFileChanged(configFile);
+        File dir = DimensionConfigDirectory.getDirectoryFor(configFile);
+        List<File> files = DimensionConfigDirectory.getConfigFiles(dir);
+        Set<File> checked = new HashSet<>();
+
+        for (File file : files)
+        {
+            changed |= this.hasFileChanged(file);
+            checked.add(file);
+        }
+
+        // Removed files
+        for (File file : new ArrayList<>(this.fileHashes.keySet()))
+        {
+            if (dir.equals(file.getParentFile()) && checked.contains(file) == false)
+            {
+                this.fileHashes.remove(file);
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Checks if the file's contents have changed since the last check.
+     * This gets called from both the watcher thread and the server thread.
+     */
+    private synchronized boolean hasFileChanged(@Nullable File file)
+    {
+        if (file == null)
+        {
+            return false;
+        }
+
+        HashCode hash = null;
+
+        try
+        {
+            if (file.isFile())
+            {
+                hash = Files.asByteSource(file).hash(Hashing.sha1());
+            }
+        }
+        catch (IOException e)
+        {
+            JustEnoughDimensions.logger.warn("ConfigFileWatcher: Failed to read the file '{}'", file.getAbsolutePath(), e);
+            return false;
+        }
+
+        HashCode oldHash = hash != null ? this.fileHashes.put(file, hash) : this.fileHashes.remove(file);
+
+        return hash != null && hash.equals(oldHash) == false;
+    }
+
+    @Nullable
+    private static File getMainConfigFile()
+    {
+        return Configs.config != null ? Configs.config.getConfigFile() : null;
+    }
+}
@@ -0,0 +1,320 @@
+package fi.dy.masa.justenoughdimensions.util;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+
+/**
+ * A file writer thread for JED's own save files, so that they don't need to wait
+ * in the vanilla ThreadedFileIOBase queue behind all the chunk saves.
+ * Writes are handled in priority order, and a write to a file that is still waiting
+ * in the queue replaces the earlier queued write of that file.
+ * Two writes of the same file never run at the same time.
+ */
+public class JEDFileIO
+{
+    public static final JEDFileIO INSTANCE = new JEDFileIO();
+    private static final int QUEUE_CAPACITY = 512;
+
+    private final Object lock = new Object();
+    private final EnumMap<Priority, ArrayDeque<PendingWrite>> queues = new EnumMap<>(Priority.class);
+    private final Map<File, PendingWrite> pendingByFile = new HashMap<>();
+    private final Set<File> inFlightFiles = new HashSet<>();
+    private final EnumMap<Priority, Statistics> statistics = new EnumMap<>(Priority.class);
+    private Thread thread;
+
+    private JEDFileIO()
+    {
+        for (Priority priority : Priority.values())
+        {
+            this.queues.put(priority, new ArrayDeque<>());
+            this.statistics.put(priority, new Statistics());
+        }
+    }
+
+    /**
+     * Queues a write of the given file. If a write of the same file is already
+     * waiting in the queue, then the new task replaces the old one.
+     * If the queue of the given priority is full, then the write is done on the calling thread,
+     * unless the same file is being written at that moment, in which case the write is queued behind it anyway.
+     * @param priority
+     * @param file the file being written, used for coalescing the writes
+     * @param task
+     */
+    public void queueWrite(Priority priority, File file, WriteTask task)
+    {
+        PendingWrite write;
+
+        synchronized (this.lock)
+        {
+            Statistics stats = this.statistics.get(priority);
+            stats.submitted++;
+            write = this.pendingByFile.get(file);
+
+            if (write != null)
+            {
+                stats.coalesced++;
+                write.task = task;
+
+                // Move the write to the higher priority queue if needed
+                if (priority.ordinal() < write.priority.ordinal())
+                {
+                    this.queues.get(write.priority).remove(write);
+                    write.priority = priority;
+                    this.queues.get(priority).addLast(write);
+                }
+
+                return;
+            }
+
+            write = new PendingWrite(priority, file, task);
+            ArrayDeque<PendingWrite> queue = this.queues.get(priority);
+
+            if (queue.size() < QUEUE_CAPACITY || this.inFlightFiles.contains(file))
+            {
+                queue.addLast(write);
+                this.pendingByFile.put(file, write);
+                this.startThreadIfNeeded();
+                this.lock.notifyAll();
+                return;
+            }
+
+            stats.callerRuns++;
+            this.inFlightFiles.add(file);
+        }
+
+        JustEnoughDimensions.logInfo("JEDFileIO: The {} queue is full, writing '{}' on the calling thread", priority, file.getPath());
+
+        try
+        {
+            this.runWrite(write);
+        }
+        finally
+        {
+            this.finishWrite(write);
+        }
+    }
+
+    /**
+     * Blocks until all the queued writes have been completed.
+     * The queues get drained in priority order, so the player data is written first.
+     */
+    public void flush()
+    {
+        synchronized (this.lock)
+        {
+            while (this.inFlightFiles.isEmpty() == false || this.pendingByFile.isEmpty() == false)
+            {
+                try
+                {
+                    this.lock.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    JustEnoughDimensions.logger.warn("JEDFileIO: Interrupted while waiting for the queued writes to finish");
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the current queue depths and the write statistics, for each priority
+     */
+    public List<String> getStatistics()
+    {
+        List<String> lines = new ArrayList<>();
+
+        synchronized (this.lock)
+        {
+            for (Priority priority : Priority.values())
+            {
+                Statistics stats = this.statistics.get(priority);
+                long avg = stats.completed > 0 ? stats.totalLatencyNanos / stats.completed : 0;
+
+                lines.add(String.format("%s: queued: %d, submitted: %d, coalesced: %d, written: %d, failed: %d, "+
+                                        "written on caller thread: %d, latency avg: %.2f ms, max: %.2f ms",
+                        priority.name(), this.queues.get(priority).size(), stats.submitted, stats.coalesced,
+                        stats.completed, stats.failed, stats.callerRuns, avg / 1000000D, stats.maxLatencyNanos / 1000000D));
+            }
+        }
+
+        return lines;
+    }
+
+    private void startThreadIfNeeded()
+    {
+        if (this.thread == null)
+        {
+            this.thread = new Thread(this::processQueue, "JED File I/O");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+    }
+
+    private void processQueue()
+    {
+        while (true)
+        {
+            PendingWrite write = null;
+
+            synchronized (this.lock)
+            {
+                while ((write = this.pollNext()) == null)
+                {
+                    try
+                    {
+                        this.lock.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        // Nothing should interrupt this thread, but if something does, hand over the remaining writes to a new thread
+                        JustEnoughDimensions.logger.warn("JEDFileIO: The file I/O thread was interrupted, starting a new one");
+                        Thread.currentThread().interrupt();
+                        this.thread = null;
+
+                        if (this.pendingByFile.isEmpty() == false)
+                        {
+                            this.startThreadIfNeeded();
+                        }
+
+                        return;
+                    }
+                }
+
+                this.pendingByFile.remove(write.file);
+                this.inFlightFiles.add(write.file);
+            }
+
+            try
+            {
+                this.runWrite(write);
+            }
+            finally
+            {
+                this.finishWrite(write);
+            }
+        }
+    }
+
+    /**
+     * Takes the next write in priority order, skipping the files that are being written at the moment.
+     */
+    private PendingWrite pollNext()
+    {
+        for (ArrayDeque<PendingWrite> queue : this.queues.values())
+        {
+            Iterator<PendingWrite> iter = queue.iterator();
+
+            while (iter.hasNext())
+            {
+                PendingWrite write = iter.next();
+
+                if (this.inFlightFiles.contains(write.file) == false)
+                {
+                    iter.remove();
+                    return write;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void finishWrite(PendingWrite write)
+    {
+        synchronized (this.lock)
+        {
+            this.inFlightFiles.remove(write.file);
+            this.lock.notifyAll();
+        }
+    }
+
+    private void runWrite(PendingWrite write)
+    {
+        boolean success;
+
+        try
+        {
+            success = write.task.write();
+        }
+        catch (Exception e)
+        {
+            JustEnoughDimensions.logger.warn("JEDFileIO: Failed to write file '{}'", write.file.getAbsolutePath(), e);
+            success = false;
+        }
+
+        long latency = System.nanoTime() - write.queuedTime;
+
+        synchronized (this.lock)
+        {
+            Statistics stats = this.statistics.get(write.priority);
+
+            if (success)
+            {
+                stats.completed++;
+                stats.totalLatencyNanos += latency;
+                stats.maxLatencyNanos = Math.max(stats.maxLatencyNanos, latency);
+            }
+            else
+            {
+                stats.failed++;
+            }
+        }
+    }
+
+    /**
+     * The write priorities, in the order they get written.
+     */
+    public enum Priority
+    {
+        PLAYER_DATA,
+        TRACKER_DATA,
+        WORLD_INFO;
+    }
+
+    public interface WriteTask
+    {
+        /**
+         * Writes the file.
+         * @return true if the write succeeded
+         */
+        boolean write() throws Exception;
+    }
+
+    private static class PendingWrite
+    {
+        private final File file;
+        private final long queuedTime;
+        private Priority priority;
+        private WriteTask task;
+
+        private PendingWrite(Priority priority, File file, WriteTask task)
+        {
+            this.priority = priority;
+            this.file = file;
+            this.task = task;
+            this.queuedTime = System.nanoTime();
+        }
+    }
+
+    private static class Statistics
+    {
+        private long submitted;
+        private long coalesced;
+        private long completed;
+        private long failed;
+        private long callerRuns;
+        private long totalLatencyNanos;
+        private long maxLatencyNanos;
+    }
+}
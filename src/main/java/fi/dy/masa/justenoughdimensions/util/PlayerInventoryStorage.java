@@ -7,7 +7,6 @@ import javax.annotation.Nullable;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.world.storage.ThreadedFileIOBase;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 import fi.dy.masa.justenoughdimensions.reference.Reference;
 
@@ -75,7 +74,7 @@ public class PlayerInventoryStorage
                 NBTTagCompound nbt = new NBTTagCompound();
                 PlayerInventoryHandler.INSTANCE.savePlayerInventories(player, nbt);
 
-                ThreadedFileIOBase.getThreadedIOInstance().queueIO(() ->
+                JEDFileIO.INSTANCE.queueWrite(JEDFileIO.Priority.PLAYER_DATA, fileReal, () ->
                 {
                     try
                     {
@@ -88,7 +87,7 @@ public class PlayerInventoryStorage
                             fileReal.delete();
                         }
 
-                        fileTmp.renameTo(fileReal);
+                        return fileTmp.renameTo(fileReal);
                     }
                     catch (Exception e)
                     {
@@ -0,0 +1,61 @@
+package fi.dy.masa.justenoughdimensions.util.world;
+
+import java.io.File;
+import javax.annotation.Nullable;
+
+/**
+ * Caches the resolved save directory of a dimension, and whether
+ * the jed_level.dat file exists in it, so that they don't need to be
+ * looked up from the file system several times while a dimension loads.
+ * The existence state is updated when JED itself writes or deletes the file.
+ */
+public class DimensionFileState
+{
+    private final int dimension;
+    @Nullable private File worldDirectory;
+    @Nullable private volatile Boolean levelFileExists;
+
+    public DimensionFileState(int dimension)
+    {
+        this.dimension = dimension;
+    }
+
+    public int getDimension()
+    {
+        return this.dimension;
+    }
+
+    @Nullable
+    public File getWorldDirectory()
+    {
+        return this.worldDirectory;
+    }
+
+    public void setWorldDirectory(@Nullable File worldDirectory)
+    {
+        this.worldDirectory = worldDirectory;
+    }
+
+    /**
+     * @return whether the level file exists, or null if that is not known yet
+     */
+    @Nullable
+    public Boolean getLevelFileExists()
+    {
+        return this.levelFileExists;
+    }
+
+    public void setLevelFileExists(boolean exists)
+    {
+        this.levelFileExists = exists;
+    }
+
+    /**
+     * Forgets the cached level file state, for example after
+     * the dimension's files have been copied or deleted.
+     */
+    public void invalidate()
+    {
+        this.levelFileExists = null;
+    }
+}
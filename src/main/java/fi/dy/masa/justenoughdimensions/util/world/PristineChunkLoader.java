@@ -0,0 +1,59 @@
+package fi.dy.masa.justenoughdimensions.util.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import net.minecraft.util.datafix.DataFixer;
+import net.minecraft.world.MinecraftException;
+import net.minecraft.world.NextTickListEntry;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
+import net.minecraft.world.gen.ChunkProviderServer;
+import net.minecraft.world.gen.IChunkGenerator;
+import fi.dy.masa.justenoughdimensions.world.gen.IRegeneratingChunkGenerator;
+
+/**
+ * A chunk loader that doesn't write chunks to disk if they are still exactly
+ * what the dimension's flat or void chunk generator would generate for them.
+ * Such chunks are simply generated again the next time they are loaded.
+ * Chunks that have been saved before are always saved, so that an old copy on disk gets overwritten.
+ */
+public class PristineChunkLoader extends AnvilChunkLoader
+{
+    public PristineChunkLoader(File chunkSaveLocation, DataFixer dataFixer)
+    {
+        super(chunkSaveLocation, dataFixer);
+    }
+
+    @Override
+    public void saveChunk(World world, Chunk chunk) throws MinecraftException, IOException
+    {
+        if (this.canSkipSaving(world, chunk) == false)
+        {
+            super.saveChunk(world, chunk);
+        }
+    }
+
+    private boolean canSkipSaving(World world, Chunk chunk)
+    {
+        if ((world.getChunkProvider() instanceof ChunkProviderServer) == false ||
+            this.isChunkGeneratedAt(chunk.x, chunk.z))
+        {
+            return false;
+        }
+
+        IChunkGenerator generator = ((ChunkProviderServer) world.getChunkProvider()).chunkGenerator;
+
+        if ((generator instanceof IRegeneratingChunkGenerator) == false ||
+            ((IRegeneratingChunkGenerator) generator).canRegenerateChunks() == false)
+        {
+            return false;
+        }
+
+        List<NextTickListEntry> scheduledUpdates = world.getPendingBlockUpdates(chunk, false);
+
+        return (scheduledUpdates == null || scheduledUpdates.isEmpty()) &&
+               ((IRegeneratingChunkGenerator) generator).isPristineChunk(chunk);
+    }
+}
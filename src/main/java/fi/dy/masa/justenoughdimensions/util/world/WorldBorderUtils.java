@@ -2,6 +2,7 @@ package fi.dy.masa.justenoughdimensions.util.world;
 
 import java.lang.reflect.Field;
 import java.util.List;
+import javax.annotation.Nullable;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.play.server.SPacketWorldBorder;
@@ -34,14 +35,22 @@ public class WorldBorderUtils
         }
     }
 
-    public static void sendWorldBorder(EntityPlayer player)
+    /**
+     * Creates the packet to initialize the border of the player's current world on the client,
+     * if the separate world borders are enabled. The packet gets sent as part of the world properties sync.
+     * @param player
+     * @return the border packet, or null if the border doesn't need to be synced
+     */
+    @Nullable
+    public static SPacketWorldBorder createWorldBorderPacket(EntityPlayer player)
     {
         if (Configs.enableSeparateWorldBorders && player.getEntityWorld().isRemote == false && (player instanceof EntityPlayerMP))
         {
-            JustEnoughDimensions.logInfo("WorldBorderUtils.sendWorldBorder(): Sending the border to player '{}'", player.getName());
-            ((EntityPlayerMP) player).connection.sendPacket(
-                    new SPacketWorldBorder(player.getEntityWorld().getWorldBorder(), SPacketWorldBorder.Action.INITIALIZE));
+            JustEnoughDimensions.logInfo("WorldBorderUtils.createWorldBorderPacket(): Sending the border to player '{}'", player.getName());
+            return new SPacketWorldBorder(player.getEntityWorld().getWorldBorder(), SPacketWorldBorder.Action.INITIALIZE);
         }
+
+        return null;
     }
 
     public static void removeDefaultBorderListeners()
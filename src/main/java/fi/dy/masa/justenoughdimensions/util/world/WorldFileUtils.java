@@ -4,28 +4,39 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
-import org.apache.commons.io.FileUtils;
 import com.google.common.io.Files;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.datafix.FixTypes;
+import net.minecraft.world.GameRules;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.IChunkProvider;
 import net.minecraft.world.chunk.storage.AnvilChunkLoader;
 import net.minecraft.world.chunk.storage.IChunkLoader;
 import net.minecraft.world.gen.ChunkProviderServer;
-import net.minecraft.world.storage.ThreadedFileIOBase;
 import net.minecraft.world.storage.WorldInfo;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 import fi.dy.masa.justenoughdimensions.config.Configs;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfig;
 import fi.dy.masa.justenoughdimensions.config.DimensionConfigEntry;
 import fi.dy.masa.justenoughdimensions.reference.Reference;
+import fi.dy.masa.justenoughdimensions.util.JEDFileIO;
 
 public class WorldFileUtils
 {
-    private static final String JED_LEVEL_FILENAME = "jed_level.dat";
+    static final String JED_LEVEL_FILENAME = "jed_level.dat";
+    /** The WorldInfo gets saved at least this often (in world ticks), even if only the time and weather values have changed */
+    private static final long MAX_UNSAVED_WORLD_TIME = 6000L;
+    private static final Map<Integer, Long> SAVED_FINGERPRINTS = new ConcurrentHashMap<>();
+    private static final Map<Integer, Long> SAVED_WORLD_TIMES = new ConcurrentHashMap<>();
+    private static final Map<Integer, DimensionFileState> FILE_STATES = new ConcurrentHashMap<>();
+    private static final Map<Integer, PendingWorldInfoSave> PENDING_SAVES = new LinkedHashMap<>();
     private static final FileFilter FILE_FILTER_NO_LEVEL = new FileFilter()
     {
         public boolean accept(File name)
@@ -36,6 +47,21 @@ public class WorldFileUtils
 
     @Nullable
     public static File getWorldDirectory(World world)
+    {
+        DimensionFileState state = getFileState(world);
+        File dir = state.getWorldDirectory();
+
+        if (dir == null)
+        {
+            dir = resolveWorldDirectory(world);
+            state.setWorldDirectory(dir);
+        }
+
+        return dir;
+    }
+
+    @Nullable
+    private static File resolveWorldDirectory(World world)
     {
         IChunkProvider chunkProvider = world.getChunkProvider();
 
@@ -59,6 +85,40 @@ public class WorldFileUtils
         }
     }
 
+    private static DimensionFileState getFileState(World world)
+    {
+        return FILE_STATES.computeIfAbsent(world.provider.getDimension(), DimensionFileState::new);
+    }
+
+    /**
+     * Forgets the cached jed_level.dat existence state of the given dimension.
+     * This needs to be called whenever the dimension's files get copied or deleted.
+     * @param dimension
+     */
+    public static void invalidateFileState(int dimension)
+    {
+        DimensionFileState state = FILE_STATES.get(dimension);
+
+        if (state != null)
+        {
+            state.invalidate();
+        }
+    }
+
+    /**
+     * Removes all the cached file state of the given dimension, including the resolved directory.
+     * @param dimension
+     */
+    public static void removeFileState(int dimension)
+    {
+        FILE_STATES.remove(dimension);
+    }
+
+    public static void clearFileStates()
+    {
+        FILE_STATES.clear();
+    }
+
     private static File getWorldDirectoryDirectly(World world, boolean mkDirs)
     {
         File mainWorldDir = world.getSaveHandler().getWorldDirectory();
@@ -80,15 +140,24 @@ public class WorldFileUtils
 
     public static boolean jedLevelFileExists(World world)
     {
-        File worldDir = WorldFileUtils.getWorldDirectory(world);
+        DimensionFileState state = getFileState(world);
+        Boolean exists = state.getLevelFileExists();
 
-        if (worldDir != null)
+        if (exists == null)
         {
+            File worldDir = WorldFileUtils.getWorldDirectory(world);
+
+            if (worldDir == null)
+            {
+                return false;
+            }
+
             File levelFile = new File(worldDir, JED_LEVEL_FILENAME);
-            return levelFile.exists() && levelFile.isFile();
+            exists = levelFile.exists() && levelFile.isFile();
+            state.setLevelFileExists(exists);
         }
 
-        return false;
+        return exists.booleanValue();
     }
 
     /**
@@ -138,7 +207,8 @@ public class WorldFileUtils
                         JustEnoughDimensions.logInfo("Copying a template world from '{}' to '{}'",
                                 templateWorld.getAbsolutePath(), dimensionDir.getAbsolutePath());
 
-                        FileUtils.copyDirectory(templateWorld, dimensionDir, FILE_FILTER_NO_LEVEL, true);
+                        new WorldTemplateCopier(templateWorld, dimensionDir, FILE_FILTER_NO_LEVEL).copy();
+                        invalidateFileState(dimension);
 
                         if (hasLevelFile && dimension == 0)
                         {
@@ -155,7 +225,7 @@ public class WorldFileUtils
                 catch (Exception e)
                 {
                     JustEnoughDimensions.logger.warn("Failed to copy a template world from '{}' to '{}'",
-                            templateWorld.getAbsolutePath(), dimensionDir.getAbsolutePath());
+                            templateWorld.getAbsolutePath(), dimensionDir.getAbsolutePath(), e);
                 }
             }
             else
@@ -228,11 +298,19 @@ public class WorldFileUtils
 
         File levelFile = new File(worldDir, JED_LEVEL_FILENAME);
 
-        if (levelFile.exists())
+        if (jedLevelFileExists(world))
         {
-            try
+            NBTTagCompound nbt = WorldInfoPrefetcher.takePrefetched(world.provider.getDimension(), levelFile);
+
+            if (nbt != null)
             {
-                NBTTagCompound nbt = CompressedStreamTools.readCompressed(new FileInputStream(levelFile));
+                JustEnoughDimensions.logInfo("WorldFileUtils.loadWorldInfoFromFile(): Using prefetched world info from file '{}'", levelFile.getPath());
+                return nbt;
+            }
+
+            try (FileInputStream is = new FileInputStream(levelFile))
+            {
+                nbt = CompressedStreamTools.readCompressed(is);
                 nbt = world.getMinecraftServer().getDataFixer().process(FixTypes.LEVEL, nbt.getCompoundTag("Data"));
                 //FMLCommonHandler.instance().handleWorldDataLoad((SaveHandler) world.getSaveHandler(), info, nbt);
                 JustEnoughDimensions.logInfo("WorldFileUtils.loadWorldInfoFromFile(): Read world info from file '{}'", levelFile.getPath());
@@ -247,12 +325,20 @@ public class WorldFileUtils
             //return SaveFormatOld.loadAndFix(fileLevel, world.getMinecraftServer().getDataFixer(), (SaveHandler) world.getSaveHandler());
         }
 
+        WorldInfoPrefetcher.discard(world.provider.getDimension());
         JustEnoughDimensions.logInfo("WorldFileUtils.loadWorldInfoFromFile(): '{}' didn't exist for dimension {}",
                 JED_LEVEL_FILENAME, world.provider.getDimension());
         return null;
     }
 
-    private static void saveWorldInfoToFile(World world, @Nullable File worldDir)
+    /**
+     * Queues the WorldInfo of the given world to be saved, if it has changed since it was last saved.
+     * The actual file writes happen when {@link #flushPendingWorldInfoSaves()} gets called.
+     * @param world
+     * @param worldDir
+     * @param force if true, then the WorldInfo is saved even if it appears unchanged
+     */
+    private static void saveWorldInfoToFile(World world, @Nullable File worldDir, boolean force)
     {
         if (worldDir == null)
         {
@@ -260,6 +346,7 @@ public class WorldFileUtils
             return;
         }
 
+        final int dimension = world.provider.getDimension();
         WorldInfo info = world.getWorldInfo();
         info.setBorderSize(world.getWorldBorder().getDiameter());
         info.getBorderCenterX(world.getWorldBorder().getCenterX());
@@ -271,62 +358,194 @@ public class WorldFileUtils
         info.setBorderLerpTarget(world.getWorldBorder().getTargetSize());
         info.setBorderLerpTime(world.getWorldBorder().getTimeUntilTarget());
 
+        final long fingerprint = getWorldInfoFingerprint(info, dimension);
+        final long worldTime = info.getWorldTotalTime();
+        Long lastFingerprint = SAVED_FINGERPRINTS.get(dimension);
+        Long lastWorldTime = SAVED_WORLD_TIMES.get(dimension);
+
+        // The time and weather values are not part of the fingerprint, so limit how much of them can be lost in a crash
+        if (force == false && lastFingerprint != null && lastFingerprint.longValue() == fingerprint &&
+            lastWorldTime != null && Math.abs(worldTime - lastWorldTime.longValue()) < MAX_UNSAVED_WORLD_TIME)
+        {
+            return;
+        }
+
         NBTTagCompound rootTag = new NBTTagCompound();
         NBTTagCompound playerNBT = world.getMinecraftServer().getPlayerList().getHostPlayerData();
         rootTag.setTag("Data", info.cloneNBTCompound(playerNBT));
 
-        ThreadedFileIOBase.getThreadedIOInstance().queueIO(() ->
+        SAVED_FINGERPRINTS.put(dimension, fingerprint);
+        SAVED_WORLD_TIMES.put(dimension, worldTime);
+        PENDING_SAVES.put(dimension, new PendingWorldInfoSave(dimension, worldDir, rootTag, fingerprint));
+    }
+
+    /**
+     * Hands all the queued jed_level.dat saves over to the JED file I/O thread.
+     * This should be called once after each save cycle, and when worlds get unloaded.
+     */
+    public static void flushPendingWorldInfoSaves()
+    {
+        if (PENDING_SAVES.isEmpty())
+        {
+            return;
+        }
+
+        final List<PendingWorldInfoSave> saves = new ArrayList<>(PENDING_SAVES.values());
+        PENDING_SAVES.clear();
+
+        for (PendingWorldInfoSave save : saves)
         {
-            try
+            JEDFileIO.INSTANCE.queueWrite(JEDFileIO.Priority.WORLD_INFO, new File(save.worldDir, JED_LEVEL_FILENAME), () ->
             {
-                /*
-                if (world.getSaveHandler() instanceof SaveHandler)
+                if (writeWorldInfoFile(save))
                 {
-                    FMLCommonHandler.instance().handleWorldDataSave((SaveHandler) world.getSaveHandler(), info, rootTag);
-                }
-                */
+                    DimensionFileState state = FILE_STATES.get(save.dimension);
 
-                File fileNew = new File(worldDir, JED_LEVEL_FILENAME + "_new");
-                File fileOld = new File(worldDir, JED_LEVEL_FILENAME + "_old");
-                File fileCurrent = new File(worldDir, JED_LEVEL_FILENAME);
-                CompressedStreamTools.writeCompressed(rootTag, new FileOutputStream(fileNew));
+                    if (state != null)
+                    {
+                        state.setLevelFileExists(true);
+                    }
 
-                if (fileOld.exists())
-                {
-                    fileOld.delete();
+                    return true;
                 }
 
-                fileCurrent.renameTo(fileOld);
+                // Make sure the next save attempt won't get skipped
+                SAVED_FINGERPRINTS.remove(save.dimension, save.fingerprint);
+                return false;
+            });
+        }
+    }
 
-                if (fileCurrent.exists())
-                {
-                    JustEnoughDimensions.logger.error("Failed to rename file '{}' to '{}'", fileCurrent.getAbsolutePath(), fileOld.getAbsolutePath());
-                    return false;
-                }
+    private static boolean writeWorldInfoFile(PendingWorldInfoSave save)
+    {
+        try
+        {
+            File fileNew = new File(save.worldDir, JED_LEVEL_FILENAME + "_new");
+            File fileOld = new File(save.worldDir, JED_LEVEL_FILENAME + "_old");
+            File fileCurrent = new File(save.worldDir, JED_LEVEL_FILENAME);
+            CompressedStreamTools.writeCompressed(save.rootTag, new FileOutputStream(fileNew));
 
-                fileNew.renameTo(fileCurrent);
+            if (fileOld.exists())
+            {
+                fileOld.delete();
+            }
 
-                if (fileNew.exists())
-                {
-                    JustEnoughDimensions.logger.error("Failed to rename file '{}' to '{}'", fileNew.getAbsolutePath(), fileCurrent.getAbsolutePath());
-                    return false;
-                }
+            fileCurrent.renameTo(fileOld);
+
+            if (fileCurrent.exists())
+            {
+                JustEnoughDimensions.logger.error("Failed to rename file '{}' to '{}'", fileCurrent.getAbsolutePath(), fileOld.getAbsolutePath());
+                return false;
             }
-            catch (Exception e)
+
+            fileNew.renameTo(fileCurrent);
+
+            if (fileNew.exists())
             {
-                JustEnoughDimensions.logger.error("WorldFileUtils.saveWorldInfoToFile(): Failed to save world "+
-                                                  "info to file for dimension {}", world.provider.getDimension(), e);
+                JustEnoughDimensions.logger.error("Failed to rename file '{}' to '{}'", fileNew.getAbsolutePath(), fileCurrent.getAbsolutePath());
+                return false;
             }
 
-            return false;
-        });
+            return true;
+        }
+        catch (Exception e)
+        {
+            JustEnoughDimensions.logger.error("WorldFileUtils.saveWorldInfoToFile(): Failed to save world "+
+                                              "info to file for dimension {}", save.dimension, e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns a cheap hash of the saved WorldInfo values.
+     * The values that change by themselves every tick in any ticking dimension are intentionally left out:
+     * the total world time, the day time and the clear weather, rain and thunder timers.
+     * They still get saved whenever anything else changes, when the save is forced,
+     * after at most MAX_UNSAVED_WORLD_TIME ticks, and always when the world gets unloaded.
+     */
+    private static long getWorldInfoFingerprint(WorldInfo info, int dimension)
+    {
+        long hash = 17;
+
+        hash = hash * 31 + info.getSeed();
+        hash = hash * 31 + info.getSpawnX();
+        hash = hash * 31 + info.getSpawnY();
+        hash = hash * 31 + info.getSpawnZ();
+        hash = hash * 31 + info.getTerrainType().getName().hashCode();
+        hash = hash * 31 + info.getGeneratorOptions().hashCode();
+        hash = hash * 31 + info.getWorldName().hashCode();
+        hash = hash * 31 + info.getGameType().getID();
+        hash = hash * 31 + (info.getDifficulty() != null ? info.getDifficulty().getId() : -1);
+        hash = hash * 31 + (info.isRaining()                ? 1 : 0);
+        hash = hash * 31 + (info.isThundering()             ? 1 : 0);
+        hash = hash * 31 + (info.isMapFeaturesEnabled()     ? 1 : 0);
+        hash = hash * 31 + (info.isHardcoreModeEnabled()    ? 1 : 0);
+        hash = hash * 31 + (info.areCommandsAllowed()       ? 1 : 0);
+        hash = hash * 31 + (info.isDifficultyLocked()       ? 1 : 0);
+        hash = hash * 31 + (info.isInitialized()            ? 1 : 0);
+
+        hash = hash * 31 + Double.doubleToLongBits(info.getBorderCenterX());
+        hash = hash * 31 + Double.doubleToLongBits(info.getBorderCenterZ());
+        hash = hash * 31 + Double.doubleToLongBits(info.getBorderSize());
+        hash = hash * 31 + Double.doubleToLongBits(info.getBorderSafeZone());
+        hash = hash * 31 + Double.doubleToLongBits(info.getBorderDamagePerBlock());
+        hash = hash * 31 + Double.doubleToLongBits(info.getBorderLerpTarget());
+        hash = hash * 31 + info.getBorderLerpTime();
+        hash = hash * 31 + info.getBorderWarningDistance();
+        hash = hash * 31 + info.getBorderWarningTime();
+
+        GameRules rules = info.getGameRulesInstance();
+
+        for (String rule : rules.getRules())
+        {
+            hash = hash * 31 + rule.hashCode();
+            hash = hash * 31 + rules.getString(rule).hashCode();
+        }
+
+        hash = hash * 31 + info.getDimensionData(dimension).hashCode();
+
+        return hash;
     }
 
     public static void saveCustomWorldInfoToFile(World world)
     {
         if (Configs.enableSeparateWorldInfo && world.isRemote == false)
         {
-            saveWorldInfoToFile(world, getWorldDirectory(world));
+            saveWorldInfoToFile(world, getWorldDirectory(world), false);
+        }
+    }
+
+    /**
+     * Saves the WorldInfo of a world that is being unloaded, and writes out all pending saves.
+     * @param world
+     */
+    public static void saveCustomWorldInfoOnUnload(World world)
+    {
+        if (Configs.enableSeparateWorldInfo && world.isRemote == false)
+        {
+            saveWorldInfoToFile(world, getWorldDirectory(world), true);
+            flushPendingWorldInfoSaves();
+        }
+
+        SAVED_FINGERPRINTS.remove(world.provider.getDimension());
+        SAVED_WORLD_TIMES.remove(world.provider.getDimension());
+        WorldInfoPrefetcher.discard(world.provider.getDimension());
+    }
+
+    private static class PendingWorldInfoSave
+    {
+        private final int dimension;
+        private final File worldDir;
+        private final NBTTagCompound rootTag;
+        private final long fingerprint;
+
+        private PendingWorldInfoSave(int dimension, File worldDir, NBTTagCompound rootTag, long fingerprint)
+        {
+            this.dimension = dimension;
+            this.worldDir = worldDir;
+            this.rootTag = rootTag;
+            this.fingerprint = fingerprint;
         }
     }
 }
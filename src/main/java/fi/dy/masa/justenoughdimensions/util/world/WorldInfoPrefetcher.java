@@ -0,0 +1,203 @@
+package fi.dy.masa.justenoughdimensions.util.world;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.datafix.DataFixer;
+import net.minecraft.util.datafix.FixTypes;
+import net.minecraft.world.WorldProvider;
+import net.minecraftforge.common.DimensionManager;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.config.DimensionConfig;
+
+/**
+ * Reads and data-fixes the jed_level.dat files of dimensions that are about to be loaded,
+ * on a background thread, so that the server thread only needs to pick up the finished
+ * NBTTagCompound when the dimension actually loads.
+ */
+public class WorldInfoPrefetcher
+{
+    private static final Map<Integer, PrefetchedWorldInfo> PREFETCHED = new ConcurrentHashMap<>();
+    private static ExecutorService executor;
+
+    /**
+     * Starts reading the jed_level.dat file of the given dimension in the background,
+     * if the dimension is not loaded yet and it uses a custom WorldInfo.
+     * @param server
+     * @param saveRootDir the root save directory of the world (the directory containing the overworld's level.dat)
+     * @param dimension
+     * @return the future of the read, or null if nothing needed to be prefetched
+     */
+    @Nullable
+    public static CompletableFuture<?> prefetch(MinecraftServer server, @Nullable File saveRootDir, int dimension)
+    {
+        if (saveRootDir == null || dimension == 0 ||
+            DimensionConfig.instance().useCustomWorldInfoFor(dimension) == false ||
+            DimensionManager.isDimensionRegistered(dimension) == false ||
+            DimensionManager.getWorld(dimension) != null)
+        {
+            return null;
+        }
+
+        PrefetchedWorldInfo existing = PREFETCHED.get(dimension);
+
+        if (existing != null)
+        {
+            return existing.future;
+        }
+
+        File dimensionDir = getDimensionDirectory(saveRootDir, dimension);
+
+        if (dimensionDir == null)
+        {
+            return null;
+        }
+
+        final DataFixer fixer = server.getDataFixer();
+        final PrefetchedWorldInfo prefetched = new PrefetchedWorldInfo(new File(dimensionDir, WorldFileUtils.JED_LEVEL_FILENAME));
+        prefetched.future = CompletableFuture.supplyAsync(() -> readAndFix(prefetched, fixer), getExecutor());
+
+        PREFETCHED.put(dimension, prefetched);
+        JustEnoughDimensions.logInfo("WorldInfoPrefetcher.prefetch(): Started reading '{}' for dimension {}", prefetched.levelFile.getPath(), dimension);
+
+        return prefetched.future;
+    }
+
+    /**
+     * Starts prefetching all the static dimensions, ie. the ones that will get loaded on server start.
+     */
+    public static void prefetchStaticDimensions(MinecraftServer server, File saveRootDir)
+    {
+        for (int dimension : DimensionManager.getStaticDimensionIDs())
+        {
+            prefetch(server, saveRootDir, dimension);
+        }
+    }
+
+    /**
+     * Returns and removes the prefetched WorldInfo data of the given dimension.
+     * If the read is still in progress, then this waits for it to finish.
+     * @param dimension
+     * @param levelFile the level file that the caller is about to read
+     * @return the already data-fixed "Data" compound, or null if there was no usable prefetched data,
+     *         in which case the caller should read the file itself
+     */
+    @Nullable
+    public static NBTTagCompound takePrefetched(int dimension, File levelFile)
+    {
+        PrefetchedWorldInfo prefetched = PREFETCHED.remove(dimension);
+
+        if (prefetched == null || prefetched.levelFile.equals(levelFile) == false)
+        {
+            return null;
+        }
+
+        try
+        {
+            NBTTagCompound nbt = prefetched.future.get();
+
+            // The file has changed since it was read, don't use the stale data
+            if (nbt != null && prefetched.lastModified != levelFile.lastModified())
+            {
+                JustEnoughDimensions.logInfo("WorldInfoPrefetcher.takePrefetched(): '{}' changed after it was prefetched", levelFile.getPath());
+                return null;
+            }
+
+            return nbt;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            JustEnoughDimensions.logger.warn("Exception prefetching " + levelFile.getPath(), e.getCause());
+        }
+
+        return null;
+    }
+
+    /**
+     * Discards any prefetched data for the given dimension.
+     */
+    public static void discard(int dimension)
+    {
+        PREFETCHED.remove(dimension);
+    }
+
+    public static void clear()
+    {
+        PREFETCHED.clear();
+    }
+
+    @Nullable
+    private static NBTTagCompound readAndFix(PrefetchedWorldInfo prefetched, DataFixer fixer)
+    {
+        File levelFile = prefetched.levelFile;
+
+        if (levelFile.isFile() == false)
+        {
+            return null;
+        }
+
+        try (FileInputStream is = new FileInputStream(levelFile))
+        {
+            prefetched.lastModified = levelFile.lastModified();
+            NBTTagCompound nbt = CompressedStreamTools.readCompressed(is);
+            return fixer.process(FixTypes.LEVEL, nbt.getCompoundTag("Data"));
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Nullable
+    private static File getDimensionDirectory(File saveRootDir, int dimension)
+    {
+        try
+        {
+            WorldProvider provider = DimensionManager.createProviderFor(dimension);
+            String folder = provider.getSaveFolder();
+            return folder != null ? new File(saveRootDir, folder) : saveRootDir;
+        }
+        catch (Exception e)
+        {
+            JustEnoughDimensions.logger.warn("WorldInfoPrefetcher: Failed to resolve the save directory of dimension {}", dimension, e);
+            return null;
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor()
+    {
+        if (executor == null)
+        {
+            executor = Executors.newSingleThreadExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("JED WorldInfo Prefetch").setDaemon(true).build());
+        }
+
+        return executor;
+    }
+
+    private static class PrefetchedWorldInfo
+    {
+        private final File levelFile;
+        private CompletableFuture<NBTTagCompound> future;
+        private volatile long lastModified;
+
+        private PrefetchedWorldInfo(File levelFile)
+        {
+            this.levelFile = levelFile;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package fi.dy.masa.justenoughdimensions.util.world;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.config.Configs;
+
+/**
+ * Copies template worlds into dimension directories.
+ * Region files are copied in parallel using FileChannel#transferTo(),
+ * and on Linux they can optionally be reflinked (copy-on-write clones) instead,
+ * if the underlying filesystem supports it (btrfs, XFS, ...).
+ */
+public class WorldTemplateCopier
+{
+    private static final boolean IS_LINUX = System.getProperty("os.name", "").toLowerCase().startsWith("linux");
+
+    private final Path sourceRoot;
+    private final Path targetRoot;
+    private final FileFilter filter;
+    private final List<Path> regionFiles = new ArrayList<>();
+    private volatile boolean useReflinks;
+
+    public WorldTemplateCopier(File sourceDir, File targetDir, FileFilter filter)
+    {
+        this.sourceRoot = sourceDir.toPath();
+        this.targetRoot = targetDir.toPath();
+        this.filter = filter;
+        this.useReflinks = Configs.worldTemplateUseReflinks && IS_LINUX;
+    }
+
+    /**
+     * Copies the template directory to the target directory.
+     * Directories and small files are copied on the calling thread while walking the tree,
+     * the region files are queued and then copied in parallel.
+     * @throws IOException if any of the files failed to copy
+     */
+    public void copy() throws IOException
+    {
+        Files.walkFileTree(this.sourceRoot, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException
+            {
+                if (dir.equals(WorldTemplateCopier.this.sourceRoot) == false &&
+                    WorldTemplateCopier.this.filter.accept(dir.toFile()) == false)
+                {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                Files.createDirectories(WorldTemplateCopier.this.getTarget(dir));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException
+            {
+                if (attrs.isRegularFile() && WorldTemplateCopier.this.filter.accept(file.toFile()))
+                {
+                    if (isRegionFile(file))
+                    {
+                        WorldTemplateCopier.this.regionFiles.add(file);
+                    }
+                    else
+                    {
+                        WorldTemplateCopier.this.copyFile(file);
+                    }
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        this.copyRegionFiles();
+    }
+
+    private void copyRegionFiles() throws IOException
+    {
+        if (this.regionFiles.isEmpty())
+        {
+            return;
+        }
+
+        final int threads = Math.max(1, Math.min(Configs.worldTemplateCopyThreads, this.regionFiles.size()));
+
+        if (threads == 1)
+        {
+            for (Path file : this.regionFiles)
+            {
+                this.copyFile(file);
+            }
+
+            return;
+        }
+
+        JustEnoughDimensions.logInfo("WorldTemplateCopier: Copying {} region files using {} threads", this.regionFiles.size(), threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("JED Template Copy #%d").setDaemon(true).build());
+        List<Future<?>> futures = new ArrayList<>();
+
+        try
+        {
+            for (final Path file : this.regionFiles)
+            {
+                futures.add(executor.submit(() -> { this.copyFile(file); return null; }));
+            }
+
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while copying the template world", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private Path getTarget(Path source)
+    {
+        return this.targetRoot.resolve(this.sourceRoot.relativize(source).toString());
+    }
+
+    private void copyFile(Path source) throws IOException
+    {
+        Path target = this.getTarget(source);
+
+        if ((this.useReflinks && this.tryReflink(source, target)) == false)
+        {
+            transferFile(source, target);
+        }
+
+        Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+    }
+
+    /**
+     * Tries to create a copy-on-write clone of the file using <b>cp --reflink=always</b>.
+     * If the filesystem doesn't support reflinks, then they get disabled for the rest of this copy operation.
+     * @return true if the reflink succeeded
+     * @throws IOException if the thread was interrupted, or the partial target file couldn't be removed
+     */
+    private boolean tryReflink(Path source, Path target) throws IOException
+    {
+        Process process = null;
+
+        try
+        {
+            process = new ProcessBuilder("cp", "--reflink=always", source.toString(), target.toString())
+                    .redirectErrorStream(true).start();
+
+            if (process.waitFor(30, TimeUnit.SECONDS) && process.exitValue() == 0)
+            {
+                return true;
+            }
+        }
+        catch (InterruptedException e)
+        {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while copying '" + source + "'");
+        }
+        catch (Exception e)
+        {
+        }
+
+        cleanUpFailedReflink(process, source, target);
+
+        if (this.useReflinks)
+        {
+            JustEnoughDimensions.logger.info("WorldTemplateCopier: Reflink copy failed for '{}', falling back to regular copies", source);
+            this.useReflinks = false;
+        }
+
+        return false;
+    }
+
+    /**
+     * Kills the cp process if it's still running, and removes the possibly partially written target file,
+     * so that the fallback copy doesn't end up writing the same file at the same time.
+     */
+    private static void cleanUpFailedReflink(@Nullable Process process, Path source, Path target) throws IOException
+    {
+        if (process != null && process.isAlive())
+        {
+            try
+            {
+                process.destroyForcibly().waitFor();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while copying '" + source + "'");
+            }
+        }
+
+        Files.deleteIfExists(target);
+    }
+
+    private static void transferFile(Path source, Path target) throws IOException
+    {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            final long size = in.size();
+            long position = 0;
+
+            while (position < size)
+            {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static boolean isRegionFile(Path file)
+    {
+        String name = file.getFileName().toString();
+        return name.endsWith(".mca") || name.endsWith(".mcr");
+    }
+}
@@ -20,6 +20,7 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.play.server.SPacketWorldBorder;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.IProgressUpdate;
 import net.minecraft.util.ResourceLocation;
@@ -39,6 +40,7 @@ import net.minecraft.world.biome.BiomeProvider;
 import net.minecraft.world.biome.BiomeProviderSingle;
 import net.minecraft.world.border.WorldBorder;
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.AnvilChunkLoader;
 import net.minecraft.world.gen.ChunkProviderServer;
 import net.minecraft.world.gen.IChunkGenerator;
 import net.minecraft.world.gen.feature.WorldGeneratorBonusChest;
@@ -65,6 +67,7 @@ import fi.dy.masa.justenoughdimensions.util.SpawnPointSearch;
 import fi.dy.masa.justenoughdimensions.world.JEDWorldProperties;
 import fi.dy.masa.justenoughdimensions.world.WorldProviderHellJED;
 import fi.dy.masa.justenoughdimensions.world.WorldProviderSurfaceJED;
+import fi.dy.masa.justenoughdimensions.world.gen.IRegeneratingChunkGenerator;
 
 public class WorldUtils
 {
@@ -74,6 +77,7 @@ public class WorldUtils
     private static Field field_World_provider = null;
     private static Field field_WorldProvider_biomeProvider = null;
     private static Field field_ChunkProviderServer_chunkGenerator = null;
+    private static Field field_ChunkProviderServer_chunkLoader = null;
 
     static
     {
@@ -84,6 +88,7 @@ public class WorldUtils
             field_World_provider                     = ObfuscationReflectionHelper.findField(World.class, "field_73011_w"); // provider
             field_WorldProvider_biomeProvider        = ObfuscationReflectionHelper.findField(WorldProvider.class, "field_76578_c"); // biomeProvider
             field_ChunkProviderServer_chunkGenerator = ObfuscationReflectionHelper.findField(ChunkProviderServer.class, "field_186029_c"); // chunkGenerator
+            field_ChunkProviderServer_chunkLoader    = ObfuscationReflectionHelper.findField(ChunkProviderServer.class, "field_73247_e"); // chunkLoader
         }
         catch (Exception e)
         {
@@ -221,6 +226,7 @@ public class WorldUtils
                     }
 
                     FileUtils.deleteDirectory(worldDir);
+                    WorldFileUtils.invalidateFileState(dimension);
 
                     return true;
                 }
@@ -273,6 +279,7 @@ public class WorldUtils
 
                     DimensionManager.setWorld(dimension, null, worldServer.getMinecraftServer());
                     FileUtils.deleteDirectory(dir);
+                    WorldFileUtils.removeFileState(dimension);
                     CommandJED.runBroadcastCommand(sender, "delete-dimension", Integer.valueOf(dimension));
 
                     JustEnoughDimensions.logger.warn("WorldUtils.tryDeleteDimension: Successfully deleted dimension {}", dimension);
@@ -303,12 +310,23 @@ public class WorldUtils
     }
 
     public static void syncWorldProviderProperties(EntityPlayer player)
+    {
+        syncWorldProviderProperties(player, false);
+    }
+
+    /**
+     * Syncs the JED world properties of the player's current world to the player.
+     * @param player
+     * @param includeWorldBorder if true, then the world border is also bundled into the same message
+     */
+    public static void syncWorldProviderProperties(EntityPlayer player, boolean includeWorldBorder)
     {
         if (player instanceof EntityPlayerMP)
         {
             JustEnoughDimensions.logInfo("WorldUtils.syncWorldProviderProperties: Syncing WorldProvider properties " +
                                          "of dimension {} to player '{}'", player.getEntityWorld().provider.getDimension(), player.getName());
-            PacketHandler.INSTANCE.sendTo(new MessageSyncWorldProperties(player.getEntityWorld()), (EntityPlayerMP) player);
+            SPacketWorldBorder border = includeWorldBorder ? WorldBorderUtils.createWorldBorderPacket(player) : null;
+            PacketHandler.INSTANCE.sendTo(new MessageSyncWorldProperties(player.getEntityWorld(), player, border), (EntityPlayerMP) player);
         }
     }
 
@@ -566,6 +584,53 @@ public class WorldUtils
         }
     }
 
+    /**
+     * Replaces the chunk loader of the given world with one that doesn't save untouched flat or void chunks,
+     * if the dimension has the DontSavePristineChunks option enabled.
+     * This needs to happen when the world loads, before any chunks have been saved.
+     */
+    public static void setPristineChunkLoaderIfApplicable(World world)
+    {
+        JEDWorldProperties props = JEDWorldProperties.getPropertiesIfExists(world);
+
+        if (props == null || props.getDontSavePristineChunks() == false ||
+            (world.getChunkProvider() instanceof ChunkProviderServer) == false)
+        {
+            return;
+        }
+
+        ChunkProviderServer chunkProviderServer = (ChunkProviderServer) world.getChunkProvider();
+        final int dimension = world.provider.getDimension();
+
+        if ((chunkProviderServer.chunkLoader instanceof AnvilChunkLoader) == false ||
+            chunkProviderServer.chunkLoader instanceof PristineChunkLoader)
+        {
+            return;
+        }
+
+        if ((chunkProviderServer.chunkGenerator instanceof IRegeneratingChunkGenerator) == false ||
+            ((IRegeneratingChunkGenerator) chunkProviderServer.chunkGenerator).canRegenerateChunks() == false)
+        {
+            JustEnoughDimensions.logger.warn("DontSavePristineChunks is only supported with the JED void generator, or the JED flat generator " +
+                                             "without any structures, lakes, dungeons, decorations or mod population (no_mod_population " +
+                                             "and no mod IWorldGenerators), in dimension {}", dimension);
+            return;
+        }
+
+        try
+        {
+            File saveDir = ((AnvilChunkLoader) chunkProviderServer.chunkLoader).chunkSaveLocation;
+            PristineChunkLoader loader = new PristineChunkLoader(saveDir, world.getMinecraftServer().getDataFixer());
+            field_ChunkProviderServer_chunkLoader.set(chunkProviderServer, loader);
+
+            JustEnoughDimensions.logInfo("WorldUtils.setPristineChunkLoaderIfApplicable: Untouched chunks won't be saved in dimension {}", dimension);
+        }
+        catch (Exception e)
+        {
+            JustEnoughDimensions.logger.warn("Failed to set the chunk loader for dimension {}", dimension, e);
+        }
+    }
+
     private static boolean overrideChunkGenerator(int dimension, ChunkProviderServer chunkProviderServer, IChunkGenerator newChunkGenerator)
     {
         if (newChunkGenerator == null)
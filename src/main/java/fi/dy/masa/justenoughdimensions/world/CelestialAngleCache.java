@@ -0,0 +1,114 @@
+package fi.dy.masa.justenoughdimensions.world;
+
+import net.minecraft.world.World;
+
+/**
+ * Caches the custom celestial angle of one dimension. The angle gets asked for many times
+ * per tick (sky light, mob spawning, and on the client also the sky and light map rendering),
+ * almost always with the same world time and partial ticks.
+ * This also caches the doDaylightCycle game rule value, which is re-checked once per tick.
+ */
+public class CelestialAngleCache
+{
+    private static final int CURVE_RESOLUTION = 4096;
+    private static final float[] CURVE = createCurve();
+
+    private JEDWorldProperties properties;
+    private int dayCycleLength;
+    private long worldTime;
+    private float partialTicks;
+    private float angle;
+    private long daylightCycleCheckTime = Long.MIN_VALUE;
+    private boolean doDaylightCycle;
+
+    /**
+     * Returns the celestial angle for either the custom day cycle or the custom celestial angle range,
+     * depending on which one is enabled in the given properties.
+     */
+    public float getCelestialAngle(World world, JEDWorldProperties properties, int dayCycleLength, long worldTime, float partialTicks)
+    {
+        if (this.properties == properties &&
+            this.dayCycleLength == dayCycleLength &&
+            this.worldTime == worldTime &&
+            this.partialTicks == partialTicks)
+        {
+            return this.angle;
+        }
+
+        float pt = partialTicks;
+
+        // This check fixes the sun/moon spazzing out in-place noticeably
+        // with short day cycles if the daylight cycle has been disabled.
+        if (this.getDoDaylightCycle(world) == false)
+        {
+            pt = 0f;
+        }
+
+        if (properties.getUseCustomDayCycle())
+        {
+            this.angle = WorldProviderJED.calculateCelestialAngle(properties, dayCycleLength, worldTime, pt);
+        }
+        else
+        {
+            this.angle = WorldProviderJED.getCustomCelestialAngleValue(properties, dayCycleLength, worldTime, pt);
+        }
+
+        this.properties = properties;
+        this.dayCycleLength = dayCycleLength;
+        this.worldTime = worldTime;
+        this.partialTicks = partialTicks;
+
+        return this.angle;
+    }
+
+    private boolean getDoDaylightCycle(World world)
+    {
+        long time = world.getTotalWorldTime();
+
+        if (time != this.daylightCycleCheckTime)
+        {
+            this.doDaylightCycle = world.getGameRules().getBoolean("doDaylightCycle");
+            this.daylightCycleCheckTime = time;
+        }
+
+        return this.doDaylightCycle;
+    }
+
+    /**
+     * Applies the vanilla sun movement curve to the given linear angle (0.0 - 1.0),
+     * by interpolating from a pre-calculated table.
+     */
+    public static float getSmoothedAngle(float angle)
+    {
+        float pos = angle * CURVE_RESOLUTION;
+        int index = (int) pos;
+
+        // Out of range values can only come from odd world times or configs, calculate those directly
+        if (angle < 0.0F || index >= CURVE_RESOLUTION)
+        {
+            return calculateSmoothedAngle(angle);
+        }
+
+        float frac = pos - index;
+
+        return CURVE[index] + (CURVE[index + 1] - CURVE[index]) * frac;
+    }
+
+    private static float[] createCurve()
+    {
+        float[] curve = new float[CURVE_RESOLUTION + 1];
+
+        for (int i = 0; i <= CURVE_RESOLUTION; ++i)
+        {
+            curve[i] = calculateSmoothedAngle((float) i / (float) CURVE_RESOLUTION);
+        }
+
+        return curve;
+    }
+
+    private static float calculateSmoothedAngle(float angle)
+    {
+        float f1 = 1.0F - (float) ((Math.cos(angle * Math.PI) + 1.0D) / 2.0D);
+        return angle + (f1 - angle) / 3.0F;
+    }
+}
@@ -0,0 +1,50 @@
+package fi.dy.masa.justenoughdimensions.world;
+
+import javax.annotation.Nullable;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+/**
+ * Holds the last computed value of one of the custom sky/fog/cloud colors.
+ * The renderer asks for these colors several times per frame with the same arguments,
+ * so the value is only re-computed when the world time, the partial ticks,
+ * the configured base color or the caller specific key (for example the block position) changes.
+ * This is only used from the client render thread.
+ */
+public class FrameColorCache
+{
+    @Nullable private Vec3d baseColor;
+    @Nullable private Vec3d color;
+    private long totalWorldTime;
+    private long worldTime;
+    private float partialTicks;
+    private long key;
+
+    @Nullable
+    public Vec3d get(Vec3d baseColor, World world, float partialTicks, long key)
+    {
+        if (this.color != null &&
+            this.baseColor == baseColor &&
+            this.key == key &&
+            this.partialTicks == partialTicks &&
+            this.totalWorldTime == world.getTotalWorldTime() &&
+            this.worldTime == world.getWorldTime())
+        {
+            return this.color;
+        }
+
+        return null;
+    }
+
+    public Vec3d put(Vec3d baseColor, World world, float partialTicks, long key, Vec3d color)
+    {
+        this.baseColor = baseColor;
+        this.totalWorldTime = world.getTotalWorldTime();
+        this.worldTime = world.getWorldTime();
+        this.partialTicks = partialTicks;
+        this.key = key;
+        this.color = color;
+
+        return color;
+    }
+}
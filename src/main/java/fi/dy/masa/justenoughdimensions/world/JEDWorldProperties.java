@@ -1,10 +1,7 @@
 package fi.dy.masa.justenoughdimensions.world;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.IdentityHashMap;
-import java.util.Map;
-import java.util.Set;
+import java.io.IOException;
+import java.util.BitSet;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import com.google.gson.JsonArray;
@@ -21,15 +18,18 @@ import net.minecraft.world.WorldProvider;
 import net.minecraft.world.biome.Biome;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.network.WorldPropertiesPayload;
 import fi.dy.masa.justenoughdimensions.util.JEDJsonUtils;
 import fi.dy.masa.justenoughdimensions.util.JEDStringUtils;
 import fi.dy.masa.justenoughdimensions.util.PlayerInventoryStorage;
 import fi.dy.masa.justenoughdimensions.util.SpawnPointSearch;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
 public class JEDWorldProperties
 {
-    private static final Map<Integer, JEDWorldProperties> PROPERTIES = new HashMap<>();
-    private static JEDWorldProperties clientProperties = new JEDWorldProperties();
+    private static final Int2ObjectMap<JEDWorldProperties> PROPERTIES = new Int2ObjectOpenHashMap<>();
+    private static volatile JEDWorldProperties clientProperties = new JEDWorldProperties();
 
     @Nullable
     private JsonObject fullJEDTag;
@@ -42,6 +42,7 @@ public class JEDWorldProperties
     private boolean disableDragon;
     private boolean disableEndSpikes;
     private boolean dontAdvanceWeatherWhenSleeping;
+    private boolean dontSavePristineChunks;
     private boolean forceGameMode;
     private boolean generateFallbackSpawnBlock;
     private boolean useCustomCelestialAngleRange;
@@ -62,7 +63,9 @@ public class JEDWorldProperties
 
     private float[] customLightBrightnessTable = null;
     private boolean hasPerBiomeFog = false;
-    private final IdentityHashMap<Biome, Boolean> foggyBiomes = new IdentityHashMap<>();
+    // The IDs of the biomes listed in the FoggyBiomes list, and whether the listed or the unlisted biomes have fog
+    private final BitSet listedFogBiomeIds = new BitSet();
+    private boolean listedBiomesHaveFog;
 
     private WorldProvider.WorldSleepResult canSleepHere = null;
     private Boolean canDoLightning = null;
@@ -78,11 +81,15 @@ public class JEDWorldProperties
     private Boolean waterVaporizes = null;
 
     private Integer averageGroundLevel = null;
+    private Integer maxRenderDistance = null;
     private Integer respawnDimension = null;
 
     private Double horizon = null;
     private Double movementFactor = null;
 
+    private Float fogDensity = null;
+    private Float fogEnd = null;
+    private Float fogStart = null;
     private Float moonScale = null;
     private Float skyBlendRatio = null;
     private Float skyColorLightBlendRatio = null;
@@ -107,6 +114,9 @@ public class JEDWorldProperties
 
     private SpawnPointSearch spawnPointSearchType = null;
 
+    @Nullable
+    private WorldPropertiesPayload clientSyncPayload;
+
     @Nullable
     public static JEDWorldProperties getPropertiesIfExists(World world)
     {
@@ -198,6 +208,7 @@ public class JEDWorldProperties
         if (JEDJsonUtils.hasBoolean(obj, "DisableEnderDragon"))             { this.disableDragon                    = JEDJsonUtils.getBoolean(obj, "DisableEnderDragon"); }
         if (JEDJsonUtils.hasBoolean(obj, "DisableEndSpikes"))               { this.disableEndSpikes                 = JEDJsonUtils.getBoolean(obj, "DisableEndSpikes"); }
         if (JEDJsonUtils.hasBoolean(obj, "DontAdvanceWeatherWhenSleeping")) { this.dontAdvanceWeatherWhenSleeping   = JEDJsonUtils.getBoolean(obj, "DontAdvanceWeatherWhenSleeping"); }
+        if (JEDJsonUtils.hasBoolean(obj, "DontSavePristineChunks"))         { this.dontSavePristineChunks           = JEDJsonUtils.getBoolean(obj, "DontSavePristineChunks"); }
         if (JEDJsonUtils.hasBoolean(obj, "ForceGameMode"))                  { this.forceGameMode                    = JEDJsonUtils.getBoolean(obj, "ForceGameMode"); }
         if (JEDJsonUtils.hasBoolean(obj, "GenerateFallbackSpawnBlock"))     { this.generateFallbackSpawnBlock       = JEDJsonUtils.getBoolean(obj, "GenerateFallbackSpawnBlock"); }
         if (JEDJsonUtils.hasBoolean(obj, "HasSkyLight"))                    { this.hasSkyLight                      = JEDJsonUtils.getBoolean(obj, "HasSkyLight"); }
@@ -217,10 +228,14 @@ public class JEDWorldProperties
         if (JEDJsonUtils.hasInteger(obj, "RespawnDimension"))               { this.respawnDimension                 = JEDJsonUtils.getInteger(obj, "RespawnDimension"); }
         if (JEDJsonUtils.hasInteger(obj, "AverageGroundLevel"))             { this.averageGroundLevel               = JEDJsonUtils.getInteger(obj, "AverageGroundLevel"); }
         if (JEDJsonUtils.hasInteger(obj, "VoidTeleportInterval"))           { this.voidTeleportInterval             = JEDJsonUtils.getInteger(obj, "VoidTeleportInterval"); }
+        if (JEDJsonUtils.hasInteger(obj, "MaxRenderDistance"))              { this.maxRenderDistance                = JEDJsonUtils.getInteger(obj, "MaxRenderDistance"); }
 
         if (JEDJsonUtils.hasDouble(obj, "Horizon"))                         { this.horizon                          = JEDJsonUtils.getDouble(obj, "Horizon"); }
         if (JEDJsonUtils.hasDouble(obj, "MovementFactor"))                  { this.movementFactor                   = JEDJsonUtils.getDouble(obj, "MovementFactor"); }
 
+        if (JEDJsonUtils.hasFloat(obj, "FogDensity"))                       { this.fogDensity                       = JEDJsonUtils.getFloat(obj, "FogDensity"); }
+        if (JEDJsonUtils.hasFloat(obj, "FogEnd"))                           { this.fogEnd                           = JEDJsonUtils.getFloat(obj, "FogEnd"); }
+        if (JEDJsonUtils.hasFloat(obj, "FogStart"))                         { this.fogStart                         = JEDJsonUtils.getFloat(obj, "FogStart"); }
         if (JEDJsonUtils.hasFloat(obj, "MoonScale"))                        { this.moonScale                        = JEDJsonUtils.getFloat(obj, "MoonScale"); }
         if (JEDJsonUtils.hasFloat(obj, "SkyBlend"))                         { this.skyBlendRatio                    = JEDJsonUtils.getFloat(obj, "SkyBlend"); }
         if (JEDJsonUtils.hasFloat(obj, "SkyLightBlend"))                    { this.skyColorLightBlendRatio          = JEDJsonUtils.getFloat(obj, "SkyLightBlend"); }
@@ -255,7 +270,7 @@ public class JEDWorldProperties
         {
             JsonObject fogObj = obj.getAsJsonObject("FoggyBiomes");
             boolean listedHaveFog = JEDJsonUtils.getBoolean(fogObj, "listed_have_fog");
-            Set<Biome> biomes = new HashSet<>();
+            this.listedFogBiomeIds.clear();
 
             if (JEDJsonUtils.hasArray(fogObj, "biomes"))
             {
@@ -268,27 +283,16 @@ public class JEDWorldProperties
                     ResourceLocation rl = new ResourceLocation(name);
                     Biome biome = ForgeRegistries.BIOMES.getValue(rl);
 
-                    if (biome != null)
+                    int id = biome != null ? Biome.getIdForBiome(biome) : -1;
+
+                    if (id >= 0)
                     {
-                        biomes.add(biome);
+                        this.listedFogBiomeIds.set(id);
                     }
                 }
             }
 
-            this.foggyBiomes.clear();
-
-            if (listedHaveFog == false)
-            {
-                Set<Biome> allBiomes = new HashSet<>(ForgeRegistries.BIOMES.getValuesCollection());
-                allBiomes.removeAll(biomes);
-                biomes = allBiomes;
-            }
-
-            for (Biome biome : biomes)
-            {
-                this.foggyBiomes.put(biome, true);
-            }
-
+            this.listedBiomesHaveFog = listedHaveFog;
             this.hasPerBiomeFog = true;
         }
 
@@ -341,6 +345,22 @@ public class JEDWorldProperties
         if (this.nightLength <= 0) { this.nightLength = 1; }
     }
 
+    /**
+     * Returns the compressed client sync payload of these properties.
+     * The payload is created on the first call, and since the properties can't change after
+     * they have been created, the same payload is then used for all the following syncs.
+     * When the dimension config is reloaded, the properties object gets replaced, and thus also the payload.
+     */
+    public synchronized WorldPropertiesPayload getClientSyncPayload() throws IOException
+    {
+        if (this.clientSyncPayload == null)
+        {
+            this.clientSyncPayload = WorldPropertiesPayload.create(this.getJEDPropsForClientSync());
+        }
+
+        return this.clientSyncPayload;
+    }
+
     public JsonObject getJEDPropsForClientSync()
     {
         JsonObject obj = new JsonObject();
@@ -372,6 +392,11 @@ public class JEDWorldProperties
         if (this.sunScale != null)          { obj.add("SunScale",           new JsonPrimitive(this.sunScale)); }
         if (this.skyColorLightBlendRatio != null) { obj.add("SkyLightBlend", new JsonPrimitive(this.skyColorLightBlendRatio)); }
 
+        if (this.fogDensity != null)        { obj.add("FogDensity",         new JsonPrimitive(this.fogDensity)); }
+        if (this.fogEnd != null)            { obj.add("FogEnd",             new JsonPrimitive(this.fogEnd)); }
+        if (this.fogStart != null)          { obj.add("FogStart",           new JsonPrimitive(this.fogStart)); }
+        if (this.maxRenderDistance != null) { obj.add("MaxRenderDistance",  new JsonPrimitive(this.maxRenderDistance)); }
+
         if (this.isSurfaceWorld != null)        { obj.add("IsSurfaceWorld",         new JsonPrimitive(this.isSurfaceWorld)); }
         if (this.shouldClientCheckLight != null){ obj.add("ShouldClientCheckLight", new JsonPrimitive(this.shouldClientCheckLight)); }
         if (this.sunBrightnessFactor != null)   { obj.add("SunBrightnessFactor",    new JsonPrimitive(this.sunBrightnessFactor)); }
@@ -491,6 +516,15 @@ public class JEDWorldProperties
         return this.dontAdvanceWeatherWhenSleeping;
     }
 
+    /**
+     * When enabled, chunks that are still exactly as generated are not saved, and get re-generated instead.
+     * Note that the InhabitedTime of those chunks is not saved either, so it gets reset to 0 when they get re-generated.
+     */
+    public boolean getDontSavePristineChunks()
+    {
+        return this.dontSavePristineChunks;
+    }
+
     public int getDayLength()
     {
         return this.dayLength;
@@ -575,6 +609,33 @@ public class JEDWorldProperties
         return this.skyBlendRatio;
     }
 
+    @Nullable
+    public Float getFogDensity()
+    {
+        return this.fogDensity;
+    }
+
+    @Nullable
+    public Float getFogEnd()
+    {
+        return this.fogEnd;
+    }
+
+    @Nullable
+    public Float getFogStart()
+    {
+        return this.fogStart;
+    }
+
+    /**
+     * @return the maximum client render distance in chunks, or null if it's not limited in this dimension
+     */
+    @Nullable
+    public Integer getMaxRenderDistance()
+    {
+        return this.maxRenderDistance;
+    }
+
     @Nullable
     public Float getSkyColorLightBlendRatio()
     {
@@ -696,7 +757,8 @@ public class JEDWorldProperties
 
     public boolean doesBiomeHaveFog(Biome biome)
     {
-        return this.foggyBiomes.containsKey(biome);
+        int id = Biome.getIdForBiome(biome);
+        return (id >= 0 && this.listedFogBiomeIds.get(id)) == this.listedBiomesHaveFog;
     }
 
     @Nullable
@@ -16,10 +16,12 @@ import net.minecraft.world.WorldProviderEnd;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.gen.IChunkGenerator;
 import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
+import fi.dy.masa.justenoughdimensions.config.DimensionConfig;
 import fi.dy.masa.justenoughdimensions.util.ClientUtils;
 import fi.dy.masa.justenoughdimensions.util.world.DragonFightManagerDummy;
 import fi.dy.masa.justenoughdimensions.util.world.VoidTeleport;
@@ -35,8 +37,10 @@ public class WorldProviderEndJED extends WorldProviderEnd implements IWorldProvi
     protected VoidTeleportData voidTeleport = null;
     protected VoidTeleportData skyTeleport = null;
     protected int teleportCounter;
+    protected final CelestialAngleCache celestialAngleCache = new CelestialAngleCache();
     private boolean worldInfoSet;
     private boolean shouldSkipSpawnSearch;
+    private final FrameColorCache skyColorCache = new FrameColorCache();
 
     @Override
     public boolean getWorldInfoHasBeenSet()
@@ -55,6 +59,12 @@ public class WorldProviderEndJED extends WorldProviderEnd implements IWorldProvi
     {
         super.setDimension(dimension);
 
+        // The deferred config values are only read on the server, the client gets the values it needs synced from the server
+        if (FMLCommonHandler.instance().getEffectiveSide() == Side.SERVER)
+        {
+            DimensionConfig.instance().loadDeferredDimensionConfig(dimension);
+        }
+
         this.properties = JEDWorldProperties.getOrCreateProperties(dimension);
 
         // This method gets called the first time from DimensionManager.createProviderFor(),
@@ -206,13 +216,9 @@ public class WorldProviderEndJED extends WorldProviderEnd implements IWorldProvi
     @Override
     public float calculateCelestialAngle(long worldTime, float partialTicks)
     {
-        if (this.properties.getUseCustomDayCycle())
+        if (this.properties.getUseCustomDayCycle() || this.properties.getUseCustomCelestialAngleRange())
         {
-            return WorldProviderJED.calculateCelestialAngle(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
-        }
-        else if (this.properties.getUseCustomCelestialAngleRange())
-        {
-            return WorldProviderJED.getCustomCelestialAngleValue(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
+            return this.celestialAngleCache.getCelestialAngle(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
         }
 
         return super.calculateCelestialAngle(worldTime, partialTicks);
@@ -396,12 +402,22 @@ public class WorldProviderEndJED extends WorldProviderEnd implements IWorldProvi
             return super.getSkyColor(entity, partialTicks);
         }
 
+        BlockPos pos = new BlockPos(entity);
+        long key = pos.toLong();
+        Vec3d color = this.skyColorCache.get(skyColor, this.world, partialTicks, key);
+
+        if (color == null)
+        {
+            color = this.skyColorCache.put(skyColor, this.world, partialTicks, key, this.calculateSkyColor(skyColor, pos, partialTicks));
+        }
+
+        return color;
+    }
+
+    protected Vec3d calculateSkyColor(Vec3d skyColor, BlockPos blockpos, float partialTicks)
+    {
         float f1 = MathHelper.cos(this.world.getCelestialAngle(partialTicks) * ((float)Math.PI * 2F)) * 2.0F + 0.5F;
         f1 = MathHelper.clamp(f1, 0.0F, 1.0F);
-        int x = MathHelper.floor(entity.posX);
-        int y = MathHelper.floor(entity.posY);
-        int z = MathHelper.floor(entity.posZ);
-        BlockPos blockpos = new BlockPos(x, y, z);
         int blendColour = net.minecraftforge.client.ForgeHooksClient.getSkyBlendColour(this.world, blockpos);
         float r = (float)((blendColour >> 16 & 255) / 255.0F * skyColor.x);
         float g = (float)((blendColour >>  8 & 255) / 255.0F * skyColor.y);
@@ -42,7 +42,7 @@ public class WorldProviderHellJED extends WorldProviderJED
         }
         else if (this.properties.getUseCustomCelestialAngleRange())
         {
-            return getCustomCelestialAngleValue(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
+            return this.celestialAngleCache.getCelestialAngle(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
         }
 
         return 0.5F;
@@ -19,6 +19,7 @@ import net.minecraft.world.biome.BiomeProvider;
 import net.minecraft.world.biome.BiomeProviderSingle;
 import net.minecraft.world.gen.IChunkGenerator;
 import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
@@ -30,6 +31,7 @@ import fi.dy.masa.justenoughdimensions.util.world.VoidTeleport.VoidTeleportData;
 import fi.dy.masa.justenoughdimensions.util.world.WorldInfoUtils;
 import fi.dy.masa.justenoughdimensions.util.world.WorldUtils;
 import fi.dy.masa.justenoughdimensions.world.gen.ChunkGeneratorFlatJED;
+import fi.dy.masa.justenoughdimensions.world.gen.ChunkGeneratorVoidJED;
 
 public class WorldProviderJED extends WorldProviderSurface implements IWorldProviderJED
 {
@@ -41,8 +43,15 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
     protected VoidTeleportData voidTeleport = null;
     protected VoidTeleportData skyTeleport = null;
     protected int teleportCounter;
+    protected final CelestialAngleCache celestialAngleCache = new CelestialAngleCache();
     private boolean worldInfoSet;
     private boolean shouldSkipSpawnSearch;
+    private final FrameColorCache skyColorCache = new FrameColorCache();
+    private final FrameColorCache cloudColorCache = new FrameColorCache();
+    private long biomeFogCheckTime = Long.MIN_VALUE;
+    private int biomeFogCheckX;
+    private int biomeFogCheckZ;
+    private boolean biomeFogCheckResult;
 
     @Override
     public boolean getWorldInfoHasBeenSet()
@@ -122,6 +131,12 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
     {
         super.setDimension(dimension);
 
+        // The deferred config values are only read on the server, the client gets the values it needs synced from the server
+        if (FMLCommonHandler.instance().getEffectiveSide() == Side.SERVER)
+        {
+            DimensionConfig.instance().loadDeferredDimensionConfig(dimension);
+        }
+
         this.properties = JEDWorldProperties.getOrCreateProperties(dimension);
 
         // This method gets called the first time from DimensionManager.createProviderFor(),
@@ -211,6 +226,10 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
             {
                 return new ChunkGeneratorFlatJED(world, seed, features, generatorOptions);
             }
+            else if (generatorClassName.equals("ChunkGeneratorVoidJED"))
+            {
+                return new ChunkGeneratorVoidJED(world);
+            }
 
             try
             {
@@ -401,19 +420,19 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
     @Override
     public float calculateCelestialAngle(long worldTime, float partialTicks)
     {
-        if (this.properties.getUseCustomDayCycle())
-        {
-            return calculateCelestialAngle(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
-        }
-        else if (this.properties.getUseCustomCelestialAngleRange())
+        if (this.properties.getUseCustomDayCycle() || this.properties.getUseCustomCelestialAngleRange())
         {
-            return getCustomCelestialAngleValue(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
+            return this.celestialAngleCache.getCelestialAngle(this.world, this.properties, this.getDayCycleLength(), worldTime, partialTicks);
         }
 
         return super.calculateCelestialAngle(worldTime, partialTicks);
     }
 
-    public static float calculateCelestialAngle(World world, JEDWorldProperties properties, int dayCycleLength, long worldTime, float partialTicks)
+    /**
+     * Calculates the celestial angle for a custom day cycle.
+     * The partialTicks value should be 0 if the daylight cycle is disabled.
+     */
+    public static float calculateCelestialAngle(JEDWorldProperties properties, int dayCycleLength, long worldTime, float partialTicks)
     {
         long dayTicks = worldTime % dayCycleLength;
         int duskOrDawnLength = (int) (0.075f * dayCycleLength);
@@ -421,13 +440,6 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
         int nightLength = properties.getNightLength();
         float angle;
 
-        // This check fixes the sun/moon spazzing out in-place noticeably
-        // with short day cycles if the daylight cycle has been disabled.
-        if (world.getGameRules().getBoolean("doDaylightCycle") == false)
-        {
-            partialTicks = 0f;
-        }
-
         // Day, including dusk (The day part starts duskOrDawnLength before 0, so
         // subtract the duskOrDawnLength length from the day length to get the upper limit
         // of the day part of the cycle.)
@@ -458,23 +470,17 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
             --angle;
         }
 
-        float f1 = 1.0F - (float) ((Math.cos(angle * Math.PI) + 1.0D) / 2.0D);
-        angle = angle + (f1 - angle) / 3.0F;
-
-        return angle;
+        return CelestialAngleCache.getSmoothedAngle(angle);
     }
 
-    public static float getCustomCelestialAngleValue(World world, JEDWorldProperties properties, int dayCycleLength, long worldTime, float partialTicks)
+    /**
+     * Calculates the celestial angle for a custom celestial angle range.
+     * The partialTicks value should be 0 if the daylight cycle is disabled.
+     */
+    public static float getCustomCelestialAngleValue(JEDWorldProperties properties, int dayCycleLength, long worldTime, float partialTicks)
     {
         long dayTicks = worldTime % dayCycleLength;
 
-        // This check fixes the sun/moon spazzing out in-place noticeably
-        // with short day cycles if the daylight cycle has been disabled.
-        if (world.getGameRules().getBoolean("doDaylightCycle") == false)
-        {
-            partialTicks = 0f;
-        }
-
         float min = properties.getCelestialAngleMin();
         float max = properties.getCelestialAngleMax();
 
@@ -543,7 +549,19 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
     {
         if (this.properties.getHasPerBiomeFog())
         {
-            return this.properties.doesBiomeHaveFog(this.world.getBiome(new BlockPos(x, 0, z)));
+            // The renderer checks the same column several times per frame,
+            // so only look up the biome again if the column or the tick changes
+            long time = this.world.getTotalWorldTime();
+
+            if (time != this.biomeFogCheckTime || x != this.biomeFogCheckX || z != this.biomeFogCheckZ)
+            {
+                this.biomeFogCheckResult = this.properties.doesBiomeHaveFog(this.world.getBiome(new BlockPos(x, 0, z)));
+                this.biomeFogCheckTime = time;
+                this.biomeFogCheckX = x;
+                this.biomeFogCheckZ = z;
+            }
+
+            return this.biomeFogCheckResult;
         }
 
         return getBooleanOrDefault(this.properties.getHasXZFog(), this.hasXZFog);
@@ -627,11 +645,20 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
             return super.getSkyColor(entity, partialTicks);
         }
 
-        int x = MathHelper.floor(entity.posX);
-        int y = MathHelper.floor(entity.posY);
-        int z = MathHelper.floor(entity.posZ);
-        BlockPos blockpos = new BlockPos(x, y, z);
+        BlockPos pos = new BlockPos(entity);
+        long key = pos.toLong();
+        Vec3d color = this.skyColorCache.get(skyColor, this.world, partialTicks, key);
+
+        if (color == null)
+        {
+            color = this.skyColorCache.put(skyColor, this.world, partialTicks, key, this.calculateSkyColor(skyColor, pos, partialTicks));
+        }
+
+        return color;
+    }
 
+    protected Vec3d calculateSkyColor(Vec3d skyColor, BlockPos blockpos, float partialTicks)
+    {
         int blendColour = net.minecraftforge.client.ForgeHooksClient.getSkyBlendColour(this.world, blockpos);
         float r = (float) ((blendColour >> 16 & 255) / 255.0F);
         float g = (float) ((blendColour >>  8 & 255) / 255.0F);
@@ -704,6 +731,18 @@ public class WorldProviderJED extends WorldProviderSurface implements IWorldProv
             return super.getCloudColor(partialTicks);
         }
 
+        Vec3d color = this.cloudColorCache.get(cloudColor, this.world, partialTicks, 0L);
+
+        if (color == null)
+        {
+            color = this.cloudColorCache.put(cloudColor, this.world, partialTicks, 0L, this.calculateCloudColor(cloudColor, partialTicks));
+        }
+
+        return color;
+    }
+
+    protected Vec3d calculateCloudColor(Vec3d cloudColor, float partialTicks)
+    {
         float celestialAngle = MathHelper.cos(this.world.getCelestialAngleRadians(partialTicks)) * 2.0F + 0.5F;
         celestialAngle = MathHelper.clamp(celestialAngle, 0.0F, 1.0F);
 
@@ -1,12 +1,17 @@
 package fi.dy.masa.justenoughdimensions.world.gen;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import javax.annotation.Nullable;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.EnumCreatureType;
 import net.minecraft.init.Blocks;
+import net.minecraft.util.ClassInheritanceMultiMap;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
@@ -14,6 +19,7 @@ import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.Biome.SpawnListEntry;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkPrimer;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraft.world.gen.ChunkGeneratorFlat;
 import net.minecraft.world.gen.FlatGeneratorInfo;
 import net.minecraft.world.gen.MapGenBase;
@@ -28,11 +34,29 @@ import net.minecraft.world.gen.structure.StructureOceanMonument;
 import net.minecraftforge.event.ForgeEventFactory;
 import net.minecraftforge.event.terraingen.InitMapGenEvent;
 import net.minecraftforge.event.terraingen.TerrainGen;
+import net.minecraftforge.fml.common.IWorldGenerator;
 import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
+import net.minecraftforge.fml.common.registry.GameRegistry;
 import fi.dy.masa.justenoughdimensions.JustEnoughDimensions;
 
-public class ChunkGeneratorFlatJED extends ChunkGeneratorFlat
+public class ChunkGeneratorFlatJED extends ChunkGeneratorFlat implements IRegeneratingChunkGenerator
 {
+    private static Field field_ChunkPrimer_data = null;
+    private static Field field_GameRegistry_worldGenerators = null;
+
+    static
+    {
+        try
+        {
+            field_ChunkPrimer_data = ObfuscationReflectionHelper.findField(ChunkPrimer.class, "field_177860_a"); // data
+            field_GameRegistry_worldGenerators = ObfuscationReflectionHelper.findField(GameRegistry.class, "worldGenerators");
+        }
+        catch (Exception e)
+        {
+            JustEnoughDimensions.logger.error("ChunkGeneratorFlatJED: Reflection failed!!", e);
+        }
+    }
+
     protected final World world;
     protected final Random random;
     protected final ArrayList<MapGenBase> structureGenerators = new ArrayList<>();
@@ -42,6 +66,11 @@ public class ChunkGeneratorFlatJED extends ChunkGeneratorFlat
     protected boolean hasDecoration;
     protected boolean hasDungeons;
     protected boolean doModPopulation;
+    /** The block data of the flat layers, which is copied to every new chunk. Null if it's not available. */
+    @Nullable
+    private char[] primerTemplate;
+    private boolean primerTemplateCreated;
+    private Biome[] biomes;
 
     @SuppressWarnings("unchecked")
     public ChunkGeneratorFlatJED(World worldIn, long seed, boolean generateStructures, String flatGeneratorSettings)
@@ -112,41 +141,185 @@ public class ChunkGeneratorFlatJED extends ChunkGeneratorFlat
     @Override
     public Chunk generateChunk(int x, int z)
     {
-        ChunkPrimer chunkPrimer = new ChunkPrimer();
+        ChunkPrimer chunkPrimer = this.createFilledPrimer();
 
-        for (int y = 0; y < this.cachedBlockIDs.length; ++y)
+        for (MapGenBase structureGen : this.structureGenerators)
         {
-            IBlockState state = this.cachedBlockIDs[y];
+            structureGen.generate(this.world, x, z, chunkPrimer);
+        }
 
-            if (state != null)
+        Chunk chunk = new Chunk(this.world, chunkPrimer, x, z);
+        this.biomes = this.world.getBiomeProvider().getBiomes(this.biomes, x * 16, z * 16, 16, 16);
+        byte[] biomeByteArray = chunk.getBiomeArray();
+
+        for (int i = 0; i < biomeByteArray.length; ++i)
+        {
+            biomeByteArray[i] = (byte) Biome.getIdForBiome(this.biomes[i]);
+        }
+
+        chunk.generateSkylightMap();
+
+        return chunk;
+    }
+
+    /**
+     * @return true if neither this generator nor any mods add anything on top of the flat layers,
+     * so that an untouched chunk can be re-generated identically instead of being saved.
+     * This requires the no_mod_population option, and that no mods have registered an IWorldGenerator.
+     */
+    @Override
+    public boolean canRegenerateChunks()
+    {
+        return this.cachedBlockIDs != null &&
+               this.structureGenerators.isEmpty() &&
+               this.waterLakeGenerator == null &&
+               this.lavaLakeGenerator == null &&
+               this.hasDungeons == false &&
+               this.hasDecoration == false &&
+               this.doModPopulation == false &&
+               hasModWorldGenerators() == false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean hasModWorldGenerators()
+    {
+        // The IWorldGenerators get called for every populated chunk, regardless of the chunk generator
+        try
+        {
+            return ((Set<IWorldGenerator>) field_GameRegistry_worldGenerators.get(null)).isEmpty() == false;
+        }
+        catch (Exception e)
+        {
+            // If we can't tell, then assume that there are some
+            return true;
+        }
+    }
+
+    /**
+     * Checks if the given chunk is still exactly what this generator would generate,
+     * ie. it has only the flat layers and no entities or TileEntities.
+     */
+    @Override
+    public boolean isPristineChunk(Chunk chunk)
+    {
+        if (chunk.getTileEntityMap().isEmpty() == false)
+        {
+            return false;
+        }
+
+        for (ClassInheritanceMultiMap<Entity> entities : chunk.getEntityLists())
+        {
+            if (entities.isEmpty() == false)
             {
-                for (int tmpX = 0; tmpX < 16; ++tmpX)
+                return false;
+            }
+        }
+
+        ExtendedBlockStorage[] storageArray = chunk.getBlockStorageArray();
+        IBlockState air = Blocks.AIR.getDefaultState();
+
+        for (int y = 0; y < 256; ++y)
+        {
+            IBlockState expected = y < this.cachedBlockIDs.length && this.cachedBlockIDs[y] != null ? this.cachedBlockIDs[y] : air;
+            ExtendedBlockStorage storage = storageArray[y >> 4];
+
+            if (storage == Chunk.NULL_BLOCK_STORAGE)
+            {
+                if (expected != air)
                 {
-                    for (int tmpZ = 0; tmpZ < 16; ++tmpZ)
+                    return false;
+                }
+
+                continue;
+            }
+
+            for (int x = 0; x < 16; ++x)
+            {
+                for (int z = 0; z < 16; ++z)
+                {
+                    if (storage.get(x, y & 15, z) != expected)
                     {
-                        chunkPrimer.setBlockState(tmpX, y, tmpZ, state);
+                        return false;
                     }
                 }
             }
         }
 
-        for (MapGenBase structureGen : this.structureGenerators)
+        return true;
+    }
+
+    /**
+     * Creates a new ChunkPrimer with the flat layers already placed.
+     * The layers are the same in every chunk, so they are only placed once
+     * into a template, which then gets copied to each new primer.
+     */
+    protected ChunkPrimer createFilledPrimer()
+    {
+        if (this.primerTemplateCreated == false)
         {
-            structureGen.generate(this.world, x, z, chunkPrimer);
+            this.primerTemplate = this.createPrimerTemplate();
+            this.primerTemplateCreated = true;
         }
 
-        Chunk chunk = new Chunk(this.world, chunkPrimer, x, z);
-        Biome[] biomeArray = this.world.getBiomeProvider().getBiomes(null, x * 16, z * 16, 16, 16);
-        byte[] biomeByteArray = chunk.getBiomeArray();
+        ChunkPrimer chunkPrimer = new ChunkPrimer();
 
-        for (int i = 0; i < biomeByteArray.length; ++i)
+        if (this.primerTemplate != null)
         {
-            biomeByteArray[i] = (byte) Biome.getIdForBiome(biomeArray[i]);
+            try
+            {
+                char[] data = (char[]) field_ChunkPrimer_data.get(chunkPrimer);
+                System.arraycopy(this.primerTemplate, 0, data, 0, data.length);
+                return chunkPrimer;
+            }
+            catch (Exception e)
+            {
+                JustEnoughDimensions.logger.warn("ChunkGeneratorFlatJED: Failed to copy the primer template, falling back to placing the layers", e);
+                this.primerTemplate = null;
+            }
         }
 
-        chunk.generateSkylightMap();
+        this.placeLayers(chunkPrimer);
 
-        return chunk;
+        return chunkPrimer;
+    }
+
+    @Nullable
+    private char[] createPrimerTemplate()
+    {
+        if (field_ChunkPrimer_data != null)
+        {
+            try
+            {
+                ChunkPrimer chunkPrimer = new ChunkPrimer();
+                this.placeLayers(chunkPrimer);
+                return ((char[]) field_ChunkPrimer_data.get(chunkPrimer)).clone();
+            }
+            catch (Exception e)
+            {
+                JustEnoughDimensions.logger.warn("ChunkGeneratorFlatJED: Failed to create the primer template", e);
+            }
+        }
+
+        return null;
+    }
+
+    private void placeLayers(ChunkPrimer chunkPrimer)
+    {
+        for (int y = 0; y < this.cachedBlockIDs.length; ++y)
+        {
+            IBlockState state = this.cachedBlockIDs[y];
+
+            if (state != null)
+            {
+                for (int tmpX = 0; tmpX < 16; ++tmpX)
+                {
+                    for (int tmpZ = 0; tmpZ < 16; ++tmpZ)
+                    {
+                        chunkPrimer.setBlockState(tmpX, y, tmpZ, state);
+                    }
+                }
+            }
+        }
     }
 
     @Override
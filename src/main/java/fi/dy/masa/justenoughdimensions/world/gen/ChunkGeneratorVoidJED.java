@@ -0,0 +1,120 @@
+package fi.dy.masa.justenoughdimensions.world.gen;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EnumCreatureType;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.biome.Biome.SpawnListEntry;
+import net.minecraft.world.biome.BiomeProvider;
+import net.minecraft.world.biome.BiomeProviderSingle;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import net.minecraft.world.gen.IChunkGenerator;
+
+/**
+ * A chunk generator for completely empty void dimensions.
+ * The chunks don't have any block storage sections, and they are marked as already
+ * populated and lit, so that no population or mod world generation runs for them either.
+ */
+public class ChunkGeneratorVoidJED implements IChunkGenerator, IRegeneratingChunkGenerator
+{
+    protected final World world;
+
+    public ChunkGeneratorVoidJED(World world)
+    {
+        this.world = world;
+    }
+
+    @Override
+    public Chunk generateChunk(int x, int z)
+    {
+        Chunk chunk = new Chunk(this.world, x, z);
+        BiomeProvider biomeProvider = this.world.getBiomeProvider();
+
+        // With other biome providers the biome array is left unset (-1),
+        // and the Chunk then fills in each column's biome the first time it's needed.
+        if (biomeProvider instanceof BiomeProviderSingle)
+        {
+            Biome biome = biomeProvider.getBiome(BlockPos.ORIGIN);
+            Arrays.fill(chunk.getBiomeArray(), (byte) Biome.getIdForBiome(biome));
+        }
+
+        chunk.setTerrainPopulated(true);
+        chunk.setLightPopulated(true);
+
+        return chunk;
+    }
+
+    @Override
+    public void populate(int x, int z)
+    {
+    }
+
+    @Override
+    public boolean generateStructures(Chunk chunk, int x, int z)
+    {
+        return false;
+    }
+
+    @Override
+    public List<SpawnListEntry> getPossibleCreatures(EnumCreatureType creatureType, BlockPos pos)
+    {
+        return this.world.getBiome(pos).getSpawnableList(creatureType);
+    }
+
+    @Override
+    @Nullable
+    public BlockPos getNearestStructurePos(World world, String structureName, BlockPos position, boolean findUnexplored)
+    {
+        return null;
+    }
+
+    @Override
+    public void recreateStructures(Chunk chunk, int x, int z)
+    {
+    }
+
+    @Override
+    public boolean isInsideStructure(World world, String structureName, BlockPos pos)
+    {
+        return false;
+    }
+
+    @Override
+    public boolean canRegenerateChunks()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean isPristineChunk(Chunk chunk)
+    {
+        if (chunk.getTileEntityMap().isEmpty() == false)
+        {
+            return false;
+        }
+
+        for (ClassInheritanceMultiMap<Entity> entities : chunk.getEntityLists())
+        {
+            if (entities.isEmpty() == false)
+            {
+                return false;
+            }
+        }
+
+        for (ExtendedBlockStorage storage : chunk.getBlockStorageArray())
+        {
+            if (storage != Chunk.NULL_BLOCK_STORAGE && storage.isEmpty() == false)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package fi.dy.masa.justenoughdimensions.world.gen;
+
+import net.minecraft.world.chunk.Chunk;
+
+public interface IRegeneratingChunkGenerator
+{
+    /**
+     * Returns true if this generator doesn't add anything across chunk borders,
+     * so that an untouched chunk can be re-generated identically instead of being saved
+     * @return
+     */
+    boolean canRegenerateChunks();
+
+    /**
+     * Returns true if the given chunk is still exactly what this generator would generate for it
+     * @param chunk
+     * @return
+     */
+    boolean isPristineChunk(Chunk chunk);
+}